@@ -0,0 +1,21 @@
+package km.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Uruchamia wszystkie benchmarki (lub pasujące do wzorca z argumentu) z profilerem GC,
+// który raportuje alokacje na operację (gc.alloc.rate.norm). Pliki .atsp szukane są w katalogu
+// z właściwości pea3.dataDir (domyślnie katalog roboczy).
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "km\\.benchmarks\\..*")
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("-Dpea3.dataDir=" + Instances.dataDirectory())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,47 @@
+package km.benchmarks;
+
+import km.algorithms.XoshiroRandom;
+import km.model.TSPProblem;
+import km.model.Tour;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+
+// Wspólny dostęp do plików instancji używanych w benchmarkach i losowa trasa startowa
+final class Instances {
+    private Instances() {
+    }
+
+    static String dataDirectory() {
+        return System.getProperty("pea3.dataDir", ".");
+    }
+
+    static String path(String instance) {
+        return Paths.get(dataDirectory(), instance).toString();
+    }
+
+    static TSPProblem load(String instance) {
+        try {
+            return TSPProblem.loadFromFile(path(instance));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Losowa permutacja miast (Fisher-Yates)
+    static Tour randomTour(TSPProblem problem, XoshiroRandom random) {
+        int n = problem.getCitiesCount();
+        int[] cities = new int[n];
+        for (int i = 0; i < n; i++) {
+            cities[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = cities[i];
+            cities[i] = cities[j];
+            cities[j] = tmp;
+        }
+        return new Tour(cities);
+    }
+}
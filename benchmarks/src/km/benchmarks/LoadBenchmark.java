@@ -0,0 +1,44 @@
+package km.benchmarks;
+
+import km.model.TSPProblem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+
+// Wczytywanie instancji: parser tekstowy oraz kopia binarna mapowana do pamięci
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadBenchmark {
+    @Param({"br17.atsp", "ftv47.atsp", "ftv170.atsp", "rbg443.atsp"})
+    public String instance;
+
+    private String path;
+
+    @Setup
+    public void setUp() throws IOException {
+        path = Instances.path(instance);
+        TSPProblem.loadFromFile(path, true); // Utworzenie kopii binarnej przed pomiarem
+    }
+
+    @Benchmark
+    public TSPProblem parse() throws IOException {
+        return TSPProblem.loadFromFile(path);
+    }
+
+    @Benchmark
+    public TSPProblem cached() throws IOException {
+        return TSPProblem.loadFromFile(path, true);
+    }
+}
@@ -0,0 +1,63 @@
+package km.benchmarks;
+
+import km.algorithms.Metropolis;
+import km.algorithms.NeighborhoodOperator;
+import km.algorithms.XoshiroRandom;
+import km.model.TSPProblem;
+import km.model.Tour;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Elementy pętli wyżarzania: losowanie ruchu z oceną zmiany kosztu oraz test akceptacji
+// (tablicowy Metropolis.accept porównywany z bezpośrednim wywołaniem Math.exp).
+// Ocena całej trasy nie zależy od operatora, więc mierzy ją osobno TourBenchmark.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveBenchmark {
+    @Param({"br17.atsp", "ftv47.atsp", "ftv170.atsp", "rbg443.atsp"})
+    public String instance;
+
+    @Param({"swap", "insertion", "orOpt", "threeOpt"})
+    public String operatorName;
+
+    private TSPProblem problem;
+    private Tour tour;
+    private NeighborhoodOperator operator;
+    private XoshiroRandom random;
+
+    @Setup
+    public void setUp() {
+        problem = Instances.load(instance);
+        random = new XoshiroRandom(42);
+        tour = Instances.randomTour(problem, random);
+        operator = NeighborhoodOperator.create(operatorName, problem);
+    }
+
+    @Benchmark
+    public int proposeMove() {
+        return operator.propose(tour, random);
+    }
+
+    @Benchmark
+    public boolean acceptanceTest() {
+        int delta = operator.propose(tour, random);
+        return Metropolis.accept(delta, 100.0, random);
+    }
+
+    @Benchmark
+    public boolean acceptanceTestExp() {
+        int delta = operator.propose(tour, random);
+        return delta <= 0 || Math.exp(-delta / 100.0) > random.nextDouble();
+    }
+}
@@ -0,0 +1,49 @@
+package km.benchmarks;
+
+import km.algorithms.SimulatedAnnealing;
+import km.model.TSPProblem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Pełne wywołanie solve() ze stałą liczbą iteracji - niezależne od limitu czasu z konfiguracji
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolveBenchmark {
+    private static final long ITERATIONS = 100_000;
+
+    @Param({"br17.atsp", "ftv47.atsp", "ftv170.atsp", "rbg443.atsp"})
+    public String instance;
+
+    @Param({"geometric", "logarithmic"})
+    public String coolingMethod;
+
+    private TSPProblem problem;
+
+    @Setup
+    public void setUp() {
+        problem = Instances.load(instance);
+    }
+
+    @Benchmark
+    public List<Integer> solve() {
+        SimulatedAnnealing simulatedAnnealing = new SimulatedAnnealing(problem, 10000.0, 0.99, Long.MAX_VALUE / 1000, "random", coolingMethod);
+        simulatedAnnealing.setMaxIterations(ITERATIONS);
+        return simulatedAnnealing.solve(-1);
+    }
+}
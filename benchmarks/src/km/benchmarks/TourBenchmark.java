@@ -0,0 +1,40 @@
+package km.benchmarks;
+
+import km.algorithms.XoshiroRandom;
+import km.model.TSPProblem;
+import km.model.Tour;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Ocena całej trasy - jeden pomiar na instancję, bez parametru operatora z MoveBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TourBenchmark {
+    @Param({"br17.atsp", "ftv47.atsp", "ftv170.atsp", "rbg443.atsp"})
+    public String instance;
+
+    private TSPProblem problem;
+    private Tour tour;
+
+    @Setup
+    public void setUp() {
+        problem = Instances.load(instance);
+        tour = Instances.randomTour(problem, new XoshiroRandom(42));
+    }
+
+    @Benchmark
+    public int evaluateTour() {
+        return tour.length(problem);
+    }
+}
@@ -1,18 +1,39 @@
 package km;
 
+import km.algorithms.Algorithm;
+import km.algorithms.GeneticAlgorithm;
+import km.algorithms.ParallelSimulatedAnnealing;
+import km.algorithms.ParallelTempering;
 import km.algorithms.SimulatedAnnealing;
+import km.algorithms.TourCache;
+import km.data.AsyncRecordWriter;
+import km.data.Checkpoint;
 import km.data.ConfigLoader;
 import km.data.CSVWriter;
+import km.data.ResultsReader;
+import km.data.TraceWriter;
+import km.experiment.ExperimentPlan;
+import km.experiment.ExperimentScheduler;
+import km.experiment.ResultAggregator;
 import km.model.TSPProblem;
+import km.model.TourEvaluator;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.WeakHashMap;
 
 public class Main {
+    // Pamięć odwiedzonych tras jednej instancji współdzielona przez jej łańcuchy i uruchomienia (zwalniana razem z instancją)
+    private static final Map<TSPProblem, TourCache> TOUR_CACHES = Collections.synchronizedMap(new WeakHashMap<>());
+
     public static void main(String[] args) {
         CSVWriter csvWriter = null;
+        TraceWriter traceWriter = null;
         Scanner scanner = new Scanner(System.in);
 
         try {
@@ -21,96 +42,67 @@ public class Main {
 
             // Pobieranie konfiguracji
             String inputFilePath = configLoader.getProperty("inputData");
-            double coolingRate = configLoader.getDoubleProperty("coolingRate");
             int stopTime = configLoader.getIntProperty("stopTime");
-            double initialTemperature = configLoader.getDoubleProperty("initialTemperature");
             String outputFilePath = configLoader.getProperty("outputFile");
             int testMode = configLoader.getIntProperty("testMode"); // Wartość trybu testowego (0 lub 1)
-            String initialSolutionMethod = configLoader.getProperty("initialSolutionMethod"); // Metoda generowania rozwiązania początkowego
-            String coolingMethod = configLoader.getProperty("coolingMethod"); // Domyślnie geometric
+            boolean matrixCache = configLoader.getBooleanProperty("matrixCache", false); // Binarna kopia macierzy obok pliku .atsp
+
+            // Ciepły start z najlepszej trasy wcześniejszego pliku wyników - wczytywany przed nadpisaniem pliku wyników
+            // (pomijany, gdy sesja wznawiana jest z punktu kontrolnego)
+            String warmStartFile = configLoader.getProperty("warmStart");
+            int[] warmStartTour = testMode == 1 && warmStartFile != null && !resumesFromCheckpoint(configLoader)
+                    ? ResultsReader.readBestPath(warmStartFile, inputFilePath) : null;
 
             // Inicjalizacja CSVWriter
             csvWriter = new CSVWriter();
             csvWriter.setFilePath(outputFilePath);
-            csvWriter.writeRecordHeader("Plik", "Iteracja", "Najlepsza sciezka", "Blad wzgledny (%)", "Czas wykonania (ns)", "Czas wykonania (ms)", "Sredni blad wzgledny (%)", "Sredni czas wykonania (ns)", "Sredni czas wykonania (ms)");
+            csvWriter.writeRecordHeader("Plik", "Iteracja", "Najlepsza sciezka", "Blad wzgledny (%)", "Czas wykonania (ns)", "Czas wykonania (ms)", "Sredni blad wzgledny (%)", "Sredni czas wykonania (ns)", "Sredni czas wykonania (ms)", "Luka do dolnej granicy (%)");
+
+            // Przebieg zbieżności zapisywany obok pliku wyników, gdy ustawiono odstęp próbkowania
+            if (configLoader.getIntProperty("traceInterval", 0) > 0) {
+                AsyncRecordWriter.Format traceFormat = TraceWriter.parseFormat(configLoader.getProperty("traceFormat", "csv"));
+                traceWriter = new TraceWriter(TraceWriter.traceFilePath(outputFilePath, traceFormat), traceFormat);
+            }
 
             if (testMode == 1) {
                 // Tryb testowy - algorytm uruchamiany raz
                 System.out.println("Plik: " + inputFilePath);
-                TSPProblem problem = TSPProblem.loadFromFile(inputFilePath);
+                TSPProblem problem = TSPProblem.loadFromFile(inputFilePath, matrixCache);
+                int lowerBound = problem.getLowerBound(); // Liczona przed pomiarem czasu i współdzielona z solverem
 
                 long startTimeNano = System.nanoTime();
-                SimulatedAnnealing simulatedAnnealing = new SimulatedAnnealing(problem, initialTemperature, coolingRate, stopTime, initialSolutionMethod, coolingMethod); // Zakładamy czas wykonania w sekundach
-                List<Integer> solution = simulatedAnnealing.solve(1000000);
+                Algorithm algorithm = createAlgorithm(configLoader, problem, configuredParameters(configLoader), stopTime); // Zakładamy czas wykonania w sekundach
+                String seed = configLoader.getProperty("seed"); // Ustalone ziarno - powtarzalne uruchomienie (bez klucza losowe)
+                if (seed != null) {
+                    algorithm.setSeed(Long.parseLong(seed.trim()));
+                }
+                configureSession(configLoader, algorithm, warmStartTour);
+                if (traceWriter != null) {
+                    algorithm.setTraceListener(traceWriter.listener(inputFilePath, 1));
+                }
+                List<Integer> solution = algorithm.solve(0); // Optimum nieznane - koniec po czasie lub po osiągnięciu luki do dolnej granicy
                 long elapsedTimeNano = System.nanoTime() - startTimeNano;
                 long elapsedTimeMs = elapsedTimeNano / 1_000_000;
 
-                int bestDistance = calculateTotalDistance(solution, problem);
-                System.out.printf("Najlepsza odleglosc = %d, Czas wykonania = %d ns (%d ms)%n",
-                        bestDistance, elapsedTimeNano, elapsedTimeMs);
-            } else {
-                // Standardowy tryb - przetwarzanie plików i wielokrotne uruchomienia
-                int[] executionTimes = {60, 120, 180}; // Czas wykonania w sekundach: 1 min, 2 min, 3 min
-                int[] optimalSolutions = {1776, 2755, 2465};    // Znane optymalne wartości
-                String[] files = {"ftv47.atsp", "ftv170.atsp", "rbg403.atsp"};
-
-                for (int fileIndex = 0; fileIndex < files.length; fileIndex++) {
-                    String file = files[fileIndex];
-                    int optimalSolution = optimalSolutions[fileIndex];
-                    int executionTime = executionTimes[fileIndex];
-
-                    System.out.println("Plik: " + file + "(" + optimalSolution + ")");
-                    TSPProblem problem = TSPProblem.loadFromFile(file);
-
-                    double totalRelativeError = 0.0;
-                    long totalExecutionTimeNs = 0;
-                    long totalExecutionTimeMs = 0;
-
-                    List<Integer> bestOverallPath = null;
-                    int bestOverallDistance = Integer.MAX_VALUE;
-
-                    // Uruchomienie algorytmu 10 razy
-                    for (int run = 1; run <= 10; run++) {
-                        long startTimeNano = System.nanoTime();
-                        SimulatedAnnealing simulatedAnnealing = new SimulatedAnnealing(problem, initialTemperature, coolingRate, executionTime, initialSolutionMethod, coolingMethod);
-
-                        // Użycie solve() do znalezienia najlepszego rozwiązania
-                        List<Integer> solution = simulatedAnnealing.solve(optimalSolution);
-                        long elapsedTimeNano = System.nanoTime() - startTimeNano;
-                        long elapsedTimeMs = elapsedTimeNano / 1_000_000;
-
-                        int bestDistance = calculateTotalDistance(solution, problem);
-                        double relativeError = calculateRelativeError(bestDistance, optimalSolution);
-
-                        // Aktualizacja najlepszego ogólnego rozwiązania
-                        if (bestDistance < bestOverallDistance) {
-                            bestOverallDistance = bestDistance;
-                            bestOverallPath = new ArrayList<>(solution);
-                        }
-
-                        // Dodaj wyniki do sumowania dla średnich wartości
-                        totalRelativeError += relativeError;
-                        totalExecutionTimeNs += elapsedTimeNano;
-                        totalExecutionTimeMs += elapsedTimeMs;
-
-                        System.out.printf("Iteracja %d: Najlepsza odleglosc = %d, Blad wzgledny = %.2f%%, Czas wykonania = %d ns (%d ms), Najlepsza sciezka = %s%n",
-                                run, bestDistance, relativeError, elapsedTimeNano, elapsedTimeMs, solution);
-
-                        csvWriter.writeRecord(file, run, bestDistance, relativeError, elapsedTimeNano, elapsedTimeMs, "-");
-                    }
-
-                    // Obliczanie średnich wartości
-                    double averageRelativeError = totalRelativeError / 10;
-                    double averageExecutionTimeNs = (double) totalExecutionTimeNs / 10;
-                    double averageExecutionTimeMs = (double) totalExecutionTimeMs / 10;
-
-                    // Zapis średnich do pliku CSV
-                    csvWriter.writeAverageRecord(file, averageRelativeError, averageExecutionTimeNs, averageExecutionTimeMs);
-                    csvWriter.writeRecord(file, -1, bestOverallDistance, -1, -1, -1, bestOverallPath.toString());
-
-                    System.out.printf("Plik %s: Sredni blad wzgledny = %.2f%%, Sredni czas wykonania = %.2f ns (%.2f ms)%n",
-                            file, averageRelativeError, averageExecutionTimeNs, averageExecutionTimeMs);
+                int bestDistance = TourEvaluator.evaluate(problem, solution);
+                System.out.printf("Najlepsza odleglosc = %d, Dolna granica = %d, Czas wykonania = %d ns (%d ms), Iteracje/s = %.0f, Ziarno = %d%n",
+                        bestDistance, lowerBound, elapsedTimeNano, elapsedTimeMs, algorithm.getIterationsPerSecond(), algorithm.getSeed());
+                long cacheLookups = algorithm.getTourCacheLookups();
+                if (cacheLookups > 0) {
+                    System.out.printf("Trafienia pamieci tras = %.2f%% (%d z %d)%n",
+                            algorithm.getTourCacheHits() * 100.0 / cacheLookups, algorithm.getTourCacheHits(), cacheLookups);
                 }
+                if (traceWriter != null) {
+                    traceWriter.writeSummary(inputFilePath, 1, algorithm.getMetrics());
+                }
+            } else {
+                // Standardowy tryb - plan eksperymentu (klucze experiment.*) wykonywany równolegle
+                ExperimentPlan plan = ExperimentPlan.fromConfig(configLoader);
+                int workers = configLoader.getIntProperty("experiment.workers", ExperimentScheduler.defaultWorkers(threadsPerRun(configLoader)));
+                ResultAggregator aggregator = new ResultAggregator(plan, csvWriter, traceWriter);
+                ExperimentScheduler scheduler = new ExperimentScheduler(plan,
+                        (problem, parameters, executionTime) -> createAlgorithm(configLoader, problem, parameters, executionTime), aggregator, workers);
+                scheduler.run(matrixCache);
             }
 
         } catch (IOException e) {
@@ -123,20 +115,129 @@ public class Main {
                     System.err.println("Błąd podczas zamykania pliku CSV: " + e.getMessage());
                 }
             }
+            if (traceWriter != null) {
+                try {
+                    traceWriter.close();
+                } catch (IOException e) {
+                    System.err.println("Błąd podczas zamykania pliku przebiegu: " + e.getMessage());
+                }
+            }
             scanner.close();
         }
     }
 
-    private static int calculateTotalDistance(List<Integer> solution, TSPProblem problem) {
-        int distance = 0;
-        for (int i = 0; i < solution.size() - 1; i++) {
-            distance += problem.getDistance(solution.get(i), solution.get(i + 1));
+    // Tworzy algorytm na podstawie konfiguracji: wymiana replik (algorithm=tempering), algorytm genetyczny (algorithm=genetic),
+    // pojedynczy łańcuch wyżarzania lub kilka łańcuchów równolegle (threads > 1).
+    // Parametry wyżarzania pochodzą z konfiguracji lub z siatki planu eksperymentu.
+    private static Algorithm createAlgorithm(ConfigLoader configLoader, TSPProblem problem, ExperimentPlan.Parameters parameters, long stopTime) {
+        String algorithmName = configLoader.getProperty("algorithm", "annealing");
+        double coolingRate = parameters.getCoolingRate();
+        double initialTemperature = parameters.getInitialTemperature();
+        String initialSolutionMethod = parameters.getInitialSolutionMethod(); // Metoda generowania rozwiązania początkowego
+        String coolingMethod = parameters.getCoolingMethod(); // Domyślnie geometric
+        String neighborhoodOperators = configLoader.getProperty("neighborhoodOperators", SimulatedAnnealing.DEFAULT_NEIGHBORHOOD_OPERATORS); // Operatory sąsiedztwa wybierane adaptacyjnie
+        int candidateListSize = configLoader.getIntProperty("candidateListSize", 0); // Liczba kandydatów na miasto (0 - ruchy jednostajne)
+        boolean dontLookBits = configLoader.getBooleanProperty("dontLookBits", false);
+        long traceInterval = configLoader.getIntProperty("traceInterval", 0); // Odstęp próbkowania przebiegu zbieżności (ms)
+        int threads = configLoader.getIntProperty("threads", 1); // Liczba równoległych łańcuchów
+        long exchangeInterval = configLoader.getIntProperty("exchangeInterval", 1000); // Odstęp między wymianami tras (ms)
+        boolean localSearch = configLoader.getBooleanProperty("localSearch", false); // Dopracowanie wyniku przeszukiwaniem lokalnym
+        long localSearchInterval = configLoader.getIntProperty("localSearchInterval", 0); // Odstęp między przeszukiwaniami w trakcie wyżarzania (ms, 0 - tylko na końcu)
+        double gapThreshold = configLoader.getDoubleProperty("gapThreshold", 0.0); // Luka do dolnej granicy (%) kończąca obliczenia (< 0 - wyłączone)
+        boolean autoTune = configLoader.getBooleanProperty("autoTune", false); // Temperatura i chłodzenie dobierane do instancji i limitu czasu
+        double targetAcceptance = configLoader.getDoubleProperty("targetAcceptance", SimulatedAnnealing.DEFAULT_TARGET_ACCEPTANCE); // Początkowe prawdopodobieństwo przyjęcia pogorszenia
+        int tourCacheSize = configLoader.getIntProperty("tourCache", 0); // Liczba wpisów pamięci odwiedzonych tras (0 - wyłączona)
+        long tabuTenure = configLoader.getIntProperty("tabuTenure", 0); // Odrzucanie tras odwiedzonych w ciągu tylu iteracji (0 - wyłączone)
+        TourCache tourCache = tourCacheSize > 0 ? TOUR_CACHES.computeIfAbsent(problem, key -> new TourCache(tourCacheSize)) : null;
+
+        if ("tempering".equalsIgnoreCase(algorithmName)) {
+            int replicas = configLoader.getIntProperty("replicas", Math.max(2, Runtime.getRuntime().availableProcessors())); // Domyślnie jedna replika na rdzeń
+            int sweepLength = configLoader.getIntProperty("sweepLength", 10000); // Liczba ruchów między wymianami replik
+            ParallelTempering parallelTempering = new ParallelTempering(problem, stopTime, replicas, sweepLength);
+            parallelTempering.setNeighborhoodOperators(neighborhoodOperators);
+            parallelTempering.setCandidateLists(candidateListSize, dontLookBits);
+            parallelTempering.setTraceInterval(traceInterval);
+            parallelTempering.setGapThreshold(gapThreshold);
+            parallelTempering.setLocalSearch(localSearch, localSearchInterval);
+            return parallelTempering;
+        } else if ("genetic".equalsIgnoreCase(algorithmName)) {
+            int populationSize = configLoader.getIntProperty("populationSize", 100); // Liczba osobników populacji
+            GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(problem, stopTime, populationSize, threads);
+            geneticAlgorithm.setCrossover(configLoader.getProperty("crossover", GeneticAlgorithm.DEFAULT_CROSSOVER)); // ox lub eax
+            geneticAlgorithm.setMutationRate(configLoader.getDoubleProperty("mutationRate", 0.1)); // Prawdopodobieństwo mutacji wyżarzaniem
+            geneticAlgorithm.setNeighborhoodOperators(neighborhoodOperators);
+            geneticAlgorithm.setCandidateListSize(candidateListSize);
+            geneticAlgorithm.setLocalSearch(localSearch);
+            geneticAlgorithm.setTraceInterval(traceInterval);
+            geneticAlgorithm.setGapThreshold(gapThreshold);
+            return geneticAlgorithm;
+        } else if (!"annealing".equalsIgnoreCase(algorithmName)) {
+            throw new IllegalArgumentException("Unknown algorithm: " + algorithmName);
         }
-        distance += problem.getDistance(solution.get(solution.size() - 1), solution.get(0));
-        return distance;
+
+        if (threads > 1) {
+            ParallelSimulatedAnnealing parallelAnnealing = new ParallelSimulatedAnnealing(problem, initialTemperature, coolingRate, stopTime, initialSolutionMethod, coolingMethod, threads, exchangeInterval);
+            parallelAnnealing.setNeighborhoodOperators(neighborhoodOperators);
+            parallelAnnealing.setCandidateLists(candidateListSize, dontLookBits);
+            parallelAnnealing.setTraceInterval(traceInterval);
+            parallelAnnealing.setGapThreshold(gapThreshold);
+            parallelAnnealing.setLocalSearch(localSearch, localSearchInterval);
+            parallelAnnealing.setAutoTuning(autoTune, targetAcceptance);
+            parallelAnnealing.setTourCache(tourCache, tabuTenure);
+            return parallelAnnealing;
+        }
+        SimulatedAnnealing simulatedAnnealing = new SimulatedAnnealing(problem, initialTemperature, coolingRate, stopTime, initialSolutionMethod, coolingMethod);
+        simulatedAnnealing.setNeighborhoodOperators(neighborhoodOperators);
+        simulatedAnnealing.setCandidateLists(candidateListSize, dontLookBits);
+        simulatedAnnealing.setTraceInterval(traceInterval);
+        simulatedAnnealing.setGapThreshold(gapThreshold);
+        simulatedAnnealing.setLocalSearch(localSearch, localSearchInterval);
+        simulatedAnnealing.setAutoTuning(autoTune, targetAcceptance);
+        simulatedAnnealing.setTourCache(tourCache, tabuTenure);
+        return simulatedAnnealing;
     }
 
-    private static double calculateRelativeError(int foundDistance, int optimalDistance) {
-        return ((double) (foundDistance - optimalDistance) / optimalDistance) * 100;
+    // Sesje przyrostowe w trybie testowym: punkt kontrolny (checkpointFile, checkpointInterval w ms),
+    // wznowienie z niego (resume=true) lub ciepły start od trasy z pliku wyników (warmStart)
+    private static void configureSession(ConfigLoader configLoader, Algorithm algorithm, int[] warmStartTour) throws IOException {
+        String checkpointFile = configLoader.getProperty("checkpointFile");
+        if (checkpointFile == null && warmStartTour == null) {
+            return;
+        }
+        if (!(algorithm instanceof SimulatedAnnealing)) {
+            throw new IllegalArgumentException("Checkpoints and warm start are supported only by single-chain annealing");
+        }
+        SimulatedAnnealing simulatedAnnealing = (SimulatedAnnealing) algorithm;
+        if (checkpointFile != null) {
+            simulatedAnnealing.setCheckpoint(checkpointFile, configLoader.getIntProperty("checkpointInterval", 10000));
+            if (resumesFromCheckpoint(configLoader)) {
+                Checkpoint checkpoint = Checkpoint.read(checkpointFile);
+                simulatedAnnealing.resumeFrom(checkpoint);
+                System.out.printf("Wznowienie z punktu kontrolnego %s: iteracja %d, temperatura %.4f%n", checkpointFile, checkpoint.getIteration(), checkpoint.getTemperature());
+                return;
+            }
+        }
+        if (warmStartTour != null) {
+            simulatedAnnealing.setInitialTour(warmStartTour);
+            System.out.println("Cieply start od najlepszej trasy z pliku " + configLoader.getProperty("warmStart"));
+        }
+    }
+
+    private static boolean resumesFromCheckpoint(ConfigLoader configLoader) {
+        String checkpointFile = configLoader.getProperty("checkpointFile");
+        return checkpointFile != null && configLoader.getBooleanProperty("resume", false) && Files.isRegularFile(Paths.get(checkpointFile));
+    }
+
+    private static ExperimentPlan.Parameters configuredParameters(ConfigLoader configLoader) {
+        return new ExperimentPlan.Parameters(configLoader.getDoubleProperty("coolingRate"), configLoader.getDoubleProperty("initialTemperature"),
+                configLoader.getProperty("coolingMethod"), configLoader.getProperty("initialSolutionMethod"));
+    }
+
+    // Liczba wątków jednego uruchomienia - z niej wynika, ile uruchomień zmieści się jednocześnie na rdzeniach
+    private static int threadsPerRun(ConfigLoader configLoader) {
+        if ("tempering".equalsIgnoreCase(configLoader.getProperty("algorithm", "annealing"))) {
+            return configLoader.getIntProperty("replicas", Math.max(2, Runtime.getRuntime().availableProcessors()));
+        }
+        return configLoader.getIntProperty("threads", 1);
     }
 }
@@ -0,0 +1,63 @@
+package km.algorithms;
+
+import km.model.CandidateLists;
+import km.model.TSPProblem;
+import km.model.Tour;
+
+import java.util.random.RandomGenerator;
+
+// Wspólna część operatorów: opcjonalne listy kandydatów i bity "nie patrz"
+public abstract class AbstractNeighborhoodOperator implements NeighborhoodOperator {
+    private static final int ANCHOR_ATTEMPTS = 4; // Liczba prób wylosowania miasta bez ustawionego bitu "nie patrz"
+
+    protected final TSPProblem problem;
+    protected CandidateLists candidates; // null - ruchy losowane jednostajnie
+    private DontLookBits dontLookBits;
+    private int anchor = -1; // Miasto, od którego wylosowano ostatni ruch
+
+    protected AbstractNeighborhoodOperator(TSPProblem problem) {
+        this.problem = problem;
+    }
+
+    @Override
+    public void useCandidates(CandidateLists candidates, DontLookBits dontLookBits) {
+        this.candidates = candidates;
+        this.dontLookBits = dontLookBits;
+    }
+
+    @Override
+    public void rejected() {
+        if (dontLookBits != null && anchor >= 0) {
+            dontLookBits.set(anchor);
+        }
+    }
+
+    // Losuje pozycję miasta, od którego zaczyna się ruch, omijając (w miarę możliwości) miasta z ustawionym bitem
+    protected int pickAnchor(Tour tour, RandomGenerator random, int bound) {
+        int position = random.nextInt(bound);
+        if (dontLookBits != null) {
+            for (int attempt = 1; attempt < ANCHOR_ATTEMPTS && dontLookBits.isSet(tour.cityAt(position)); attempt++) {
+                position = random.nextInt(bound);
+            }
+        }
+        anchor = tour.cityAt(position);
+        return position;
+    }
+
+    // Losowy kandydat na następnik miasta
+    protected int candidateSuccessor(int city, RandomGenerator random) {
+        return candidates.successor(city, random.nextInt(candidates.size()));
+    }
+
+    // Losowy kandydat na poprzednik miasta
+    protected int candidatePredecessor(int city, RandomGenerator random) {
+        return candidates.predecessor(city, random.nextInt(candidates.size()));
+    }
+
+    // Po zaakceptowanym ruchu miasta, których łuki się zmieniły, wracają do puli
+    protected void touched(int city) {
+        if (dontLookBits != null) {
+            dontLookBits.clear(city);
+        }
+    }
+}
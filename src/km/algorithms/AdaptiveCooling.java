@@ -0,0 +1,35 @@
+package km.algorithms;
+
+// Chłodzenie geometryczne ze współczynnikiem przeliczanym w trakcie przebiegu: po każdym retarget()
+// temperatura spada tak, aby osiągnąć finalTemperature dokładnie na końcu pozostałego budżetu.
+// Temperatura nie spada poniżej finalTemperature, więc nie zanika do zera przy długich przebiegach.
+public class AdaptiveCooling implements CoolingSchedule {
+    private final double finalTemperature;
+    private double coolingRate = 1.0;
+
+    public AdaptiveCooling(double finalTemperature) {
+        this.finalTemperature = finalTemperature;
+    }
+
+    // remainingIterations - szacowana liczba iteracji do końca budżetu
+    public void retarget(double temperature, double remainingIterations) {
+        if (temperature <= finalTemperature || remainingIterations < 1) {
+            coolingRate = 1.0;
+        } else {
+            coolingRate = Math.pow(finalTemperature / temperature, 1.0 / remainingIterations);
+        }
+    }
+
+    @Override
+    public double next(double temperature, long iteration) {
+        return Math.max(temperature * coolingRate, finalTemperature);
+    }
+
+    public double getCoolingRate() {
+        return coolingRate;
+    }
+
+    public double getFinalTemperature() {
+        return finalTemperature;
+    }
+}
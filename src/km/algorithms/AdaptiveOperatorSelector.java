@@ -0,0 +1,115 @@
+package km.algorithms;
+
+import java.util.random.RandomGenerator;
+
+// Wybór operatora metodą ruletki z wagami dostosowywanymi do skuteczności operatorów.
+// Co SEGMENT_LENGTH wyborów waga każdego operatora przesuwa się w stronę średniej nagrody z ostatniego segmentu.
+public class AdaptiveOperatorSelector {
+    public static final int OUTCOME_REJECTED = 0;
+    public static final int OUTCOME_ACCEPTED = 1;
+    public static final int OUTCOME_IMPROVED = 2;
+    public static final int OUTCOME_NEW_BEST = 3;
+
+    private static final double[] REWARDS = {0.0, 1.0, 4.0, 10.0}; // Nagrody dla kolejnych wyników ruchu
+    private static final int SEGMENT_LENGTH = 1000;
+    private static final double REACTION = 0.2; // Szybkość reakcji wag na nowe nagrody
+    private static final double MIN_WEIGHT = 0.05; // Każdy operator ma zawsze szansę zostać wybrany
+
+    private final NeighborhoodOperator[] operators;
+    private final double[] weights;
+    private final double[] scores;
+    private final int[] uses;
+    private double totalWeight;
+    private int selections;
+
+    public AdaptiveOperatorSelector(NeighborhoodOperator... operators) {
+        if (operators.length == 0) {
+            throw new IllegalArgumentException("At least one neighborhood operator is required");
+        }
+        this.operators = operators;
+        this.weights = new double[operators.length];
+        this.scores = new double[operators.length];
+        this.uses = new int[operators.length];
+        for (int i = 0; i < operators.length; i++) {
+            weights[i] = 1.0;
+        }
+        this.totalWeight = operators.length;
+    }
+
+    public int select(RandomGenerator random) {
+        if (operators.length == 1) {
+            return 0;
+        }
+        double r = random.nextDouble() * totalWeight;
+        for (int i = 0; i < operators.length - 1; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return i;
+            }
+        }
+        return operators.length - 1;
+    }
+
+    public NeighborhoodOperator getOperator(int index) {
+        return operators[index];
+    }
+
+    public int getOperatorsCount() {
+        return operators.length;
+    }
+
+    public double getWeight(int index) {
+        return weights[index];
+    }
+
+    public void reward(int index, int outcome) {
+        scores[index] += REWARDS[outcome];
+        uses[index]++;
+
+        if (++selections == SEGMENT_LENGTH) {
+            updateWeights();
+        }
+    }
+
+    // Stan selektora do punktu kontrolnego: wagi, nagrody i liczby użyć z bieżącego segmentu oraz długość segmentu
+    public double[] getState() {
+        int k = operators.length;
+        double[] state = new double[3 * k + 1];
+        for (int i = 0; i < k; i++) {
+            state[i] = weights[i];
+            state[k + i] = scores[i];
+            state[2 * k + i] = uses[i];
+        }
+        state[3 * k] = selections;
+        return state;
+    }
+
+    public void setState(double[] state) {
+        int k = operators.length;
+        if (state.length != 3 * k + 1) {
+            throw new IllegalArgumentException("Operator state does not match " + k + " operators");
+        }
+        totalWeight = 0.0;
+        for (int i = 0; i < k; i++) {
+            weights[i] = state[i];
+            scores[i] = state[k + i];
+            uses[i] = (int) state[2 * k + i];
+            totalWeight += weights[i];
+        }
+        selections = (int) state[3 * k];
+    }
+
+    private void updateWeights() {
+        totalWeight = 0.0;
+        for (int i = 0; i < operators.length; i++) {
+            if (uses[i] > 0) {
+                weights[i] = (1 - REACTION) * weights[i] + REACTION * (scores[i] / uses[i]);
+            }
+            weights[i] = Math.max(weights[i], MIN_WEIGHT);
+            totalWeight += weights[i];
+            scores[i] = 0.0;
+            uses[i] = 0;
+        }
+        selections = 0;
+    }
+}
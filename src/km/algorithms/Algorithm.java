@@ -1,7 +1,63 @@
 package km.algorithms;
 
+import km.model.TSPProblem;
+
 import java.util.List;
+import java.util.SplittableRandom;
 
 abstract public class Algorithm {
+    protected double gapThreshold = -1; // Luka (%) do dolnej granicy, po osiągnięciu której solver kończy pracę (< 0 - wyłączone)
+    protected long seed = new SplittableRandom().nextLong(); // Ziarno generatora liczb losowych (domyślnie losowe)
+    protected TraceListener traceListener; // Odbiorca przebiegu zbieżności w trakcie solve() (null - bez przebiegu)
+
     public abstract List<Integer> solve(int optimalSolution);
-}
\ No newline at end of file
+
+    // Wczesne zakończenie, gdy najlepsza trasa jest co najwyżej gapThreshold % dłuższa od dolnej granicy problemu
+    // (0 - tylko po udowodnieniu optymalności, wartość ujemna wyłącza sprawdzanie)
+    public void setGapThreshold(double gapThreshold) {
+        this.gapThreshold = gapThreshold;
+    }
+
+    // Ziarno generatora - kolejne wywołania solve() z tym samym ziarnem losują te same ruchy
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    // Próbki i poprawy najlepszej trasy przekazywane na bieżąco - do pliku trafiają jeszcze przed końcem solve()
+    public void setTraceListener(TraceListener traceListener) {
+        this.traceListener = traceListener;
+    }
+
+    // Przepustowość ostatniego uruchomienia (iteracje na sekundę), 0 jeśli algorytm jej nie mierzy
+    public double getIterationsPerSecond() {
+        return 0.0;
+    }
+
+    // Trafienia pamięci odwiedzonych tras w ostatnim uruchomieniu (0, jeśli pamięć jest wyłączona)
+    public long getTourCacheHits() {
+        return 0;
+    }
+
+    // Wszystkie zapytania pamięci odwiedzonych tras w ostatnim uruchomieniu
+    public long getTourCacheLookups() {
+        return 0;
+    }
+
+    // Liczniki i przebieg zbieżności ostatniego uruchomienia - po jednym obiekcie na łańcuch/replikę
+    public List<SolverMetrics> getMetrics() {
+        return List.of();
+    }
+
+    // Długość trasy, przy której można zakończyć: znane optimum lub granica powiększona o dopuszczalną lukę
+    protected int targetDistance(TSPProblem problem, int optimalSolution) {
+        if (gapThreshold < 0) {
+            return optimalSolution;
+        }
+        int lowerBound = problem.getLowerBound();
+        return Math.max(optimalSolution, (int) Math.floor(lowerBound * (1 + gapThreshold / 100)));
+    }
+}
@@ -0,0 +1,18 @@
+package km.algorithms;
+
+// Schemat chłodzenia wybierany raz, przy starcie wyżarzania - pętla nie porównuje już nazw metod
+public interface CoolingSchedule {
+    // Temperatura po wykonaniu iteracji iteration (numerowanych od 1) przy bieżącej temperaturze temperature
+    double next(double temperature, long iteration);
+
+    // Brak nazwy oznacza chłodzenie geometryczne (domyślne)
+    static CoolingSchedule create(String method, double initialTemperature, double coolingRate) {
+        if (method == null || "geometric".equalsIgnoreCase(method)) {
+            return new GeometricCooling(coolingRate);
+        } else if ("logarithmic".equalsIgnoreCase(method)) {
+            return new LogarithmicCooling(initialTemperature, coolingRate);
+        } else {
+            throw new IllegalArgumentException("Unknown cooling method: " + method);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package km.algorithms;
+
+import km.model.TSPProblem;
+
+import java.util.random.RandomGenerator;
+
+// Operator krzyżowania: tworzy potomka z dwóch tras rodzicielskich we wskazanej tablicy.
+// Instancje przechowują bufory robocze, więc nie są współdzielone między wątkami.
+public interface CrossoverOperator {
+    String getName();
+
+    void crossover(int[] parentA, int[] parentB, int[] child, RandomGenerator random);
+
+    static CrossoverOperator create(String name, TSPProblem problem, int candidateListSize) {
+        if ("ox".equalsIgnoreCase(name)) {
+            return new OrderCrossover(problem.getCitiesCount());
+        } else if ("eax".equalsIgnoreCase(name)) {
+            return new EdgeAssemblyCrossover(problem, problem.getCandidateLists(candidateListSize));
+        } else {
+            throw new IllegalArgumentException("Unknown crossover operator: " + name);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package km.algorithms;
+
+// Bity "nie patrz": miasto, od którego ruch został odrzucony, jest pomijane przy losowaniu kolejnych ruchów,
+// dopóki któryś z jego łuków nie zmieni się w wyniku zaakceptowanego ruchu
+public class DontLookBits {
+    private final boolean[] bits;
+
+    public DontLookBits(int citiesCount) {
+        this.bits = new boolean[citiesCount];
+    }
+
+    public boolean isSet(int city) {
+        return bits[city];
+    }
+
+    public void set(int city) {
+        bits[city] = true;
+    }
+
+    public void clear(int city) {
+        bits[city] = false;
+    }
+}
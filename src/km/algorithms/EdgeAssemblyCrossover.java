@@ -0,0 +1,191 @@
+package km.algorithms;
+
+import km.model.CandidateLists;
+import km.model.TSPProblem;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Krzyżowanie EAX (edge assembly) w wersji dla łuków skierowanych. Łuki rodziców dzielone są na cykle AB:
+// łuk A x -> w, potem łuk B wchodzący do w przechodzony wstecz, itd. Potomek powstaje z rodzica A przez
+// zamianę łuków A jednego losowego cyklu na jego łuki B; powstałe podtrasy łączone są zachłannie
+// najtańszą wymianą dwóch łuków (bez odwracania kierunku), szukaną na listach kandydatów.
+public class EdgeAssemblyCrossover implements CrossoverOperator {
+    private static final int TRIVIAL = -2; // Łuk wspólny obu rodziców - cykl AB długości 2
+
+    private final TSPProblem problem;
+    private final CandidateLists candidates;
+    private final int[] successorsA;
+    private final int[] predecessorsB;
+    private final int[] cycleOf; // Numer cyklu AB, do którego należy łuk A wychodzący z miasta
+    private final int[] successors; // Rozwiązanie pośrednie
+    private final int[] predecessors;
+    private final int[] subtourOf;
+    private final int[] subtourSize;
+    private final int[] subtourStart;
+
+    public EdgeAssemblyCrossover(TSPProblem problem, CandidateLists candidates) {
+        int n = problem.getCitiesCount();
+        this.problem = problem;
+        this.candidates = candidates;
+        this.successorsA = new int[n];
+        this.predecessorsB = new int[n];
+        this.cycleOf = new int[n];
+        this.successors = new int[n];
+        this.predecessors = new int[n];
+        this.subtourOf = new int[n];
+        this.subtourSize = new int[n];
+        this.subtourStart = new int[n];
+    }
+
+    @Override
+    public String getName() {
+        return "eax";
+    }
+
+    @Override
+    public void crossover(int[] parentA, int[] parentB, int[] child, RandomGenerator random) {
+        int n = parentA.length;
+        for (int i = 0; i < n; i++) {
+            int next = i + 1 == n ? 0 : i + 1;
+            successorsA[parentA[i]] = parentA[next];
+            predecessorsB[parentB[next]] = parentB[i];
+        }
+
+        // Cykle AB: x -> succA(x) <- predB(succA(x)) -> ... ; odwzorowanie x -> predB(succA(x)) jest permutacją
+        Arrays.fill(cycleOf, -1);
+        int cycles = 0;
+        for (int city = 0; city < n; city++) {
+            if (cycleOf[city] != -1) {
+                continue;
+            }
+            if (predecessorsB[successorsA[city]] == city) {
+                cycleOf[city] = TRIVIAL;
+                continue;
+            }
+            int x = city;
+            do {
+                cycleOf[x] = cycles;
+                x = predecessorsB[successorsA[x]];
+            } while (x != city);
+            cycles++;
+        }
+
+        System.arraycopy(successorsA, 0, successors, 0, n);
+        if (cycles > 0) {
+            int chosen = random.nextInt(cycles);
+            for (int city = 0; city < n; city++) {
+                if (cycleOf[city] == chosen) {
+                    int target = successorsA[city];
+                    successors[predecessorsB[target]] = target; // Łuk B zastępuje łuk A wchodzący do target
+                }
+            }
+            for (int city = 0; city < n; city++) {
+                predecessors[successors[city]] = city;
+            }
+            mergeSubtours(n);
+        }
+
+        int city = parentA[0];
+        for (int i = 0; i < n; i++) {
+            child[i] = city;
+            city = successors[city];
+        }
+    }
+
+    // Łączenie podtras: najmniejsza podtrasa dołączana jest do innej wymianą łuków u -> u', v -> v'
+    // na u -> v', v -> u' o najmniejszym koszcie
+    private void mergeSubtours(int n) {
+        Arrays.fill(subtourOf, -1);
+        int subtours = 0;
+        for (int city = 0; city < n; city++) {
+            if (subtourOf[city] != -1) {
+                continue;
+            }
+            int size = 0;
+            int x = city;
+            do {
+                subtourOf[x] = subtours;
+                size++;
+                x = successors[x];
+            } while (x != city);
+            subtourStart[subtours] = city;
+            subtourSize[subtours++] = size;
+        }
+
+        int remaining = subtours;
+        while (remaining > 1) {
+            int smallest = -1;
+            for (int s = 0; s < subtours; s++) {
+                if (subtourSize[s] > 0 && (smallest < 0 || subtourSize[s] < subtourSize[smallest])) {
+                    smallest = s;
+                }
+            }
+
+            int bestCost = Integer.MAX_VALUE;
+            int bestU = -1;
+            int bestV = -1;
+            int u = subtourStart[smallest];
+            do {
+                int uNext = successors[u];
+                int removed = problem.getDistance(u, uNext);
+                for (int rank = 0; rank < candidates.size(); rank++) {
+                    int vNext = candidates.successor(u, rank);
+                    if (subtourOf[vNext] != smallest) {
+                        int v = predecessors[vNext];
+                        int cost = problem.getDistance(u, vNext) + problem.getDistance(v, uNext) - removed - problem.getDistance(v, vNext);
+                        if (cost < bestCost) {
+                            bestCost = cost;
+                            bestU = u;
+                            bestV = v;
+                        }
+                    }
+                    int v = candidates.predecessor(uNext, rank);
+                    if (subtourOf[v] != smallest) {
+                        vNext = successors[v];
+                        int cost = problem.getDistance(u, vNext) + problem.getDistance(v, uNext) - removed - problem.getDistance(v, vNext);
+                        if (cost < bestCost) {
+                            bestCost = cost;
+                            bestU = u;
+                            bestV = v;
+                        }
+                    }
+                }
+                u = uNext;
+            } while (u != subtourStart[smallest]);
+
+            if (bestU < 0) {
+                // Wszyscy kandydaci leżą w tej samej podtrasie - pełne przeszukanie dla jednego łuku
+                bestU = subtourStart[smallest];
+                int uNext = successors[bestU];
+                for (int v = 0; v < n; v++) {
+                    if (subtourOf[v] != smallest) {
+                        int vNext = successors[v];
+                        int cost = problem.getDistance(bestU, vNext) + problem.getDistance(v, uNext) - problem.getDistance(bestU, uNext) - problem.getDistance(v, vNext);
+                        if (cost < bestCost) {
+                            bestCost = cost;
+                            bestV = v;
+                        }
+                    }
+                }
+            }
+
+            int target = subtourOf[bestV];
+            int x = subtourStart[smallest];
+            do {
+                subtourOf[x] = target;
+                x = successors[x];
+            } while (x != subtourStart[smallest]);
+            subtourSize[target] += subtourSize[smallest];
+            subtourSize[smallest] = 0;
+            remaining--;
+
+            int uNext = successors[bestU];
+            int vNext = successors[bestV];
+            successors[bestU] = vNext;
+            predecessors[vNext] = bestU;
+            successors[bestV] = uNext;
+            predecessors[uNext] = bestV;
+        }
+    }
+}
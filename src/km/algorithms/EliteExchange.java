@@ -0,0 +1,49 @@
+package km.algorithms;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Wymiana najlepszej trasy między równoległymi łańcuchami wyżarzania.
+// Migawka jest niemodyfikowalna i publikowana przez compare-and-set, więc nie są potrzebne blokady.
+public class EliteExchange {
+    private final AtomicReference<Elite> best = new AtomicReference<>();
+
+    // Publikuje trasę, jeśli jest lepsza od aktualnie najlepszej. Zwraca true, jeśli została przyjęta.
+    public boolean offer(int[] tour, int distance) {
+        Elite current = best.get();
+        if (current != null && current.distance <= distance) {
+            return false;
+        }
+        Elite candidate = new Elite(tour.clone(), distance);
+        while (!best.compareAndSet(current, candidate)) {
+            current = best.get();
+            if (current != null && current.distance <= distance) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Zwraca najlepszą opublikowaną trasę lub null, jeśli żaden łańcuch jeszcze jej nie zgłosił
+    public Elite get() {
+        return best.get();
+    }
+
+    public static final class Elite {
+        private final int[] tour;
+        private final int distance;
+
+        private Elite(int[] tour, int distance) {
+            this.tour = tour;
+            this.distance = distance;
+        }
+
+        // Tablica współdzielona między wątkami - nie wolno jej modyfikować
+        public int[] getTour() {
+            return tour;
+        }
+
+        public int getDistance() {
+            return distance;
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package km.algorithms;
+
+import km.model.TSPProblem;
+import km.model.Tour;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Algorytm genetyczny (memetyczny): selekcja turniejowa, krzyżowanie OX lub EAX, opcjonalna mutacja
+// krótkim wyżarzaniem i przeszukiwanie lokalne potomków. Potomkowie jednego pokolenia tworzeni są
+// i oceniani równolegle w puli fork-join. Trasy przechowywane są w jednej puli int[2 * populationSize][n],
+// używanej ponownie w każdym pokoleniu - po selekcji zamieniane są tylko referencje.
+public class GeneticAlgorithm extends Algorithm {
+    public static final String DEFAULT_CROSSOVER = "eax";
+    private static final int SEQUENTIAL_THRESHOLD = 2; // Liczba potomków, poniżej której zadanie nie jest dzielone
+    private static final int TEMPERATURE_SAMPLES = 1000; // Liczba ruchów próbkowanych przy strojeniu mutacji
+    private static final double MUTATION_ACCEPTANCE = 0.5; // Akceptacja mediany pogorszeń w mutacji
+
+    private final TSPProblem problem;
+    private final long stopTime;
+    private final int populationSize;
+    private final int threads;
+    private XoshiroRandom random;
+    private String crossover = DEFAULT_CROSSOVER;
+    private double mutationRate = 0.1; // Prawdopodobieństwo mutacji potomka
+    private boolean localSearch;
+    private int candidateListSize = LocalSearch.DEFAULT_CANDIDATE_LIST_SIZE;
+    private long traceInterval;
+    private String neighborhoodOperators = SimulatedAnnealing.DEFAULT_NEIGHBORHOOD_OPERATORS;
+    private long maxGenerations = Long.MAX_VALUE; // Dodatkowy limit pokoleń (np. dla powtarzalnych pomiarów)
+
+    // Stan bieżącego uruchomienia
+    private int[][] pool; // [0, populationSize) - populacja, [populationSize, 2 * populationSize) - potomkowie
+    private int[] poolFitness;
+    private int[] parentsA;
+    private int[] parentsB;
+    private boolean[] improved; // Czy potomek jest lepszy od obu rodziców
+    private double mutationTemperature;
+    private XoshiroRandom[] offspringRandoms; // Generator każdego potomka bieżącego pokolenia - niezależny od podziału na wątki
+    private ThreadLocal<Worker> workers; // Bufory i operatory wątku puli (bez stanu losowego)
+
+    // Wyniki ostatniego uruchomienia
+    private SolverMetrics metrics;
+    private long offspringCount;
+    private long generations;
+    private long elapsedTimeNano;
+    private int bestDistance;
+
+    public GeneticAlgorithm(TSPProblem problem, long stopTime, int populationSize, int threads) {
+        if (populationSize < 2) {
+            throw new IllegalArgumentException("Population size must be at least 2: " + populationSize);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.problem = problem;
+        this.stopTime = stopTime;
+        this.populationSize = populationSize;
+        this.threads = threads;
+    }
+
+    // Operator krzyżowania: "ox" lub "eax"
+    public void setCrossover(String crossover) {
+        this.crossover = crossover;
+    }
+
+    public void setMutationRate(double mutationRate) {
+        this.mutationRate = mutationRate;
+    }
+
+    // Operatory sąsiedztwa używane przez mutację
+    public void setNeighborhoodOperators(String neighborhoodOperators) {
+        this.neighborhoodOperators = neighborhoodOperators;
+    }
+
+    // Rozmiar list kandydatów dla EAX i przeszukiwania lokalnego (0 - domyślny)
+    public void setCandidateListSize(int candidateListSize) {
+        this.candidateListSize = candidateListSize > 0 ? candidateListSize : LocalSearch.DEFAULT_CANDIDATE_LIST_SIZE;
+    }
+
+    // Przeszukiwanie lokalne każdego potomka (wariant memetyczny)
+    public void setLocalSearch(boolean localSearch) {
+        this.localSearch = localSearch;
+    }
+
+    public void setTraceInterval(long traceInterval) {
+        this.traceInterval = traceInterval;
+    }
+
+    public void setMaxGenerations(long maxGenerations) {
+        this.maxGenerations = maxGenerations;
+    }
+
+    @Override
+    public List<Integer> solve(int optimalSolution) {
+        int n = problem.getCitiesCount();
+        long startTimeNano = System.nanoTime();
+        long deadline = startTimeNano + stopTime * 1_000_000_000L;
+        metrics = new SolverMetrics("population", traceInterval, traceListener);
+        metrics.start(startTimeNano, System.currentTimeMillis());
+
+        pool = new int[2 * populationSize][n];
+        poolFitness = new int[2 * populationSize];
+        parentsA = new int[populationSize];
+        parentsB = new int[populationSize];
+        improved = new boolean[populationSize];
+        random = new XoshiroRandom(seed); // Generatory potomków wydzielane są z niego w wątku głównym, w kolejności miejsc
+        offspringRandoms = new XoshiroRandom[populationSize];
+        for (int i = 0; i < populationSize; i++) {
+            offspringRandoms[i] = new XoshiroRandom(0); // Zasiewane od nowa w każdym pokoleniu, bez nowych obiektów
+        }
+        workers = ThreadLocal.withInitial(Worker::new);
+        long[] keys = new long[2 * populationSize];
+        boolean[] taken = new boolean[2 * populationSize];
+        int[][] order = new int[2 * populationSize][];
+        int[] orderFitness = new int[2 * populationSize];
+
+        int targetDistance = targetDistance(problem, optimalSolution);
+        offspringCount = 0;
+        generations = 0;
+        long accepted = 0;
+        long improving = 0;
+        ForkJoinPool forkJoinPool = new ForkJoinPool(threads);
+        try {
+            // Populacja początkowa: losowe trasy (po przeszukiwaniu lokalnym, jeśli włączone)
+            splitOffspringRandoms();
+            forkJoinPool.invoke(new Breed(0, populationSize, true));
+            bestDistance = Integer.MAX_VALUE;
+            for (int i = 0; i < populationSize; i++) {
+                bestDistance = Math.min(bestDistance, poolFitness[i]);
+            }
+            metrics.recordInitialSolution(System.nanoTime() - startTimeNano);
+            metrics.recordBest(bestDistance);
+            mutationTemperature = calibrateMutationTemperature();
+
+            while (System.nanoTime() < deadline && bestDistance > targetDistance && generations < maxGenerations) {
+                // Selekcja turniejowa rodziców w wątku głównym, tworzenie potomków równolegle
+                for (int i = 0; i < populationSize; i++) {
+                    parentsA[i] = tournament();
+                    do {
+                        parentsB[i] = tournament();
+                    } while (parentsB[i] == parentsA[i]);
+                }
+                splitOffspringRandoms();
+                forkJoinPool.invoke(new Breed(0, populationSize, false));
+                generations++;
+                offspringCount += populationSize;
+                for (int i = 0; i < populationSize; i++) {
+                    if (improved[i]) {
+                        improving++;
+                    }
+                }
+
+                // Selekcja (mu + lambda): najlepsze trasy o różnych długościach, a gdy ich brakuje - pozostałe
+                for (int i = 0; i < 2 * populationSize; i++) {
+                    keys[i] = ((long) poolFitness[i] << 32) | i;
+                }
+                Arrays.sort(keys);
+                Arrays.fill(taken, false);
+                int selected = 0;
+                int previousFitness = -1;
+                for (int k = 0; k < keys.length && selected < populationSize; k++) {
+                    int index = (int) keys[k];
+                    if (poolFitness[index] != previousFitness) {
+                        previousFitness = poolFitness[index];
+                        taken[k] = true;
+                        selected++;
+                    }
+                }
+                for (int k = 0; k < keys.length && selected < populationSize; k++) {
+                    if (!taken[k]) {
+                        taken[k] = true;
+                        selected++;
+                    }
+                }
+                int head = 0;
+                int tail = populationSize;
+                for (int k = 0; k < keys.length; k++) {
+                    int index = (int) keys[k];
+                    int slot = taken[k] ? head++ : tail++;
+                    order[slot] = pool[index];
+                    orderFitness[slot] = poolFitness[index];
+                    if (taken[k] && index >= populationSize) {
+                        accepted++;
+                    }
+                }
+                System.arraycopy(order, 0, pool, 0, keys.length);
+                System.arraycopy(orderFitness, 0, poolFitness, 0, keys.length);
+
+                if (poolFitness[0] < bestDistance) {
+                    bestDistance = poolFitness[0];
+                    metrics.recordBest(bestDistance);
+                }
+                long now = System.currentTimeMillis();
+                if (metrics.isSampleDue(now)) {
+                    metrics.sample(now, offspringCount, accepted, improving, offspringCount - accepted, mutationTemperature, poolFitness[populationSize / 2], bestDistance);
+                }
+            }
+        } finally {
+            forkJoinPool.shutdownNow();
+        }
+        if (bestDistance == optimalSolution) {
+            System.out.printf("Optimal solution found: %d. Terminating early.%n", bestDistance);
+        } else if (bestDistance <= targetDistance) {
+            System.out.printf("Lower bound gap reached: %d. Terminating early.%n", bestDistance);
+        }
+
+        elapsedTimeNano = System.nanoTime() - startTimeNano;
+        metrics.finish(offspringCount, accepted, improving, offspringCount - accepted, mutationTemperature);
+
+        int best = 0;
+        for (int i = 1; i < populationSize; i++) {
+            if (poolFitness[i] < poolFitness[best]) {
+                best = i;
+            }
+        }
+        List<Integer> result = new ArrayList<>(n);
+        for (int city : pool[best]) {
+            result.add(city);
+        }
+        return result;
+    }
+
+    @Override
+    public List<SolverMetrics> getMetrics() {
+        return metrics == null ? List.of() : List.of(metrics);
+    }
+
+    public int getBestDistance() {
+        return bestDistance;
+    }
+
+    public long getGenerations() {
+        return generations;
+    }
+
+    // Liczba potomków ocenianych na sekundę
+    @Override
+    public double getIterationsPerSecond() {
+        if (elapsedTimeNano == 0) {
+            return 0.0;
+        }
+        return offspringCount * 1_000_000_000.0 / elapsedTimeNano;
+    }
+
+    // Turniej dwóch losowych osobników z populacji
+    private int tournament() {
+        int a = random.nextInt(populationSize);
+        int b = random.nextInt(populationSize);
+        return poolFitness[a] <= poolFitness[b] ? a : b;
+    }
+
+    // Temperatura mutacji: mediana pogorszeń losowych ruchów na najlepszej trasie akceptowana z prawdopodobieństwem MUTATION_ACCEPTANCE
+    private double calibrateMutationTemperature() {
+        int best = 0;
+        for (int i = 1; i < populationSize; i++) {
+            if (poolFitness[i] < poolFitness[best]) {
+                best = i;
+            }
+        }
+        Tour tour = new Tour(pool[best]);
+        NeighborhoodOperator[] operators = createOperators();
+        int[] uphill = new int[TEMPERATURE_SAMPLES];
+        int count = 0;
+        for (int s = 0; s < TEMPERATURE_SAMPLES; s++) {
+            int delta = operators[random.nextInt(operators.length)].propose(tour, random);
+            if (delta > 0) {
+                uphill[count++] = delta;
+            }
+        }
+        if (count == 0) {
+            return 1.0;
+        }
+        Arrays.sort(uphill, 0, count);
+        return -uphill[count / 2] / Math.log(MUTATION_ACCEPTANCE);
+    }
+
+    private NeighborhoodOperator[] createOperators() {
+        String[] names = neighborhoodOperators.split(",");
+        NeighborhoodOperator[] operators = new NeighborhoodOperator[names.length];
+        for (int i = 0; i < names.length; i++) {
+            operators[i] = NeighborhoodOperator.create(names[i].trim(), problem);
+        }
+        return operators;
+    }
+
+    // Strumień potomka zależy tylko od ziarna, numeru pokolenia i miejsca potomka, a nie od tego,
+    // który wątek puli go utworzy - uruchomienie z tym samym ziarnem jest powtarzalne. Ziarna pobierane są
+    // tak jak w split(), ale generatory zasiewane są w miejscu.
+    private void splitOffspringRandoms() {
+        for (XoshiroRandom offspringRandom : offspringRandoms) {
+            offspringRandom.reseed(random.nextLong());
+        }
+    }
+
+    // Tworzenie i ocena potomków z zakresu [from, to) - zakres dzielony na połowy aż do SEQUENTIAL_THRESHOLD
+    private final class Breed extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final boolean initial;
+
+        private Breed(int from, int to, boolean initial) {
+            this.from = from;
+            this.to = to;
+            this.initial = initial;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                Worker worker = workers.get();
+                for (int i = from; i < to; i++) {
+                    if (initial) {
+                        worker.randomTour(i);
+                    } else {
+                        worker.breed(i);
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Breed(from, middle, initial), new Breed(middle, to, initial));
+        }
+    }
+
+    // Bufory i operatory jednego wątku puli - generator losowy pobierany jest z offspringRandoms dla każdego potomka
+    private final class Worker {
+        private final CrossoverOperator crossoverOperator;
+        private final NeighborhoodOperator[] operators;
+        private final LocalSearch localSearcher;
+        private final Tour tour;
+        private XoshiroRandom random;
+
+        private Worker() {
+            this.crossoverOperator = CrossoverOperator.create(crossover, problem, candidateListSize);
+            this.operators = createOperators();
+            this.localSearcher = localSearch ? new LocalSearch(problem, candidateListSize) : null;
+            this.tour = new Tour(new int[problem.getCitiesCount()]);
+        }
+
+        private void randomTour(int slot) {
+            random = offspringRandoms[slot];
+            int[] cities = pool[slot];
+            for (int i = 0; i < cities.length; i++) {
+                cities[i] = i;
+            }
+            for (int i = cities.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = cities[i];
+                cities[i] = cities[j];
+                cities[j] = tmp;
+            }
+            tour.setCities(cities);
+            poolFitness[slot] = improve(tour.length(problem), false);
+            tour.copyTo(cities);
+        }
+
+        private void breed(int index) {
+            int slot = populationSize + index;
+            random = offspringRandoms[index];
+            int[] child = pool[slot];
+            crossoverOperator.crossover(pool[parentsA[index]], pool[parentsB[index]], child, random);
+            tour.setCities(child);
+            int distance = improve(tour.length(problem), random.nextDouble() < mutationRate);
+            tour.copyTo(child);
+            poolFitness[slot] = distance;
+            improved[index] = distance < Math.min(poolFitness[parentsA[index]], poolFitness[parentsB[index]]);
+        }
+
+        // Mutacja krótkim wyżarzaniem (n ruchów w stałej temperaturze) i przeszukiwanie lokalne
+        private int improve(int distance, boolean mutate) {
+            if (mutate) {
+                for (int s = 0; s < tour.size(); s++) {
+                    NeighborhoodOperator operator = operators[random.nextInt(operators.length)];
+                    int delta = operator.propose(tour, random);
+                    if (Metropolis.accept(delta, mutationTemperature, random)) {
+                        operator.apply(tour);
+                        distance += delta;
+                    }
+                }
+            }
+            if (localSearcher != null) {
+                distance = localSearcher.optimize(tour, distance);
+            }
+            return distance;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package km.algorithms;
+
+// Chłodzenie geometryczne: T(k+1) = a * T(k)
+public class GeometricCooling implements CoolingSchedule {
+    private final double coolingRate;
+
+    public GeometricCooling(double coolingRate) {
+        this.coolingRate = coolingRate;
+    }
+
+    @Override
+    public double next(double temperature, long iteration) {
+        return temperature * coolingRate;
+    }
+}
@@ -0,0 +1,15 @@
+package km.algorithms;
+
+import km.model.TSPProblem;
+
+// Przeniesienie pojedynczego miasta w inne miejsce trasy
+public class InsertionOperator extends SegmentMoveOperator {
+    public InsertionOperator(TSPProblem problem) {
+        super(problem, 1, 1);
+    }
+
+    @Override
+    public String getName() {
+        return "insertion";
+    }
+}
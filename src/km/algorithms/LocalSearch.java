@@ -0,0 +1,195 @@
+package km.algorithms;
+
+import km.model.CandidateLists;
+import km.model.TSPProblem;
+import km.model.Tour;
+
+// Przeszukiwanie lokalne do minimum lokalnego (pierwsza poprawa) z ruchami zachowującymi kierunek łuków:
+// or-opt (przeniesienie segmentu 1-3 miast) oraz 3-opt bez odwracania (zamiana dwóch sąsiednich segmentów
+// dowolnej długości). Ruchy wybierane są z list kandydatów, a miasta do sprawdzenia trzymane są w kolejce
+// (bity "nie patrz") - po poprawie do kolejki wracają tylko końce zmienionych łuków.
+public class LocalSearch {
+    public static final int DEFAULT_CANDIDATE_LIST_SIZE = 10;
+    private static final int MAX_SEGMENT_LENGTH = 3; // Najdłuższy segment przenoszony przez or-opt
+
+    private final TSPProblem problem;
+    private final CandidateLists candidates;
+    private final int[] queue; // Bufor cykliczny miast do sprawdzenia
+    private final boolean[] queued;
+    private final int[] scratch;
+    private int head;
+    private int count;
+    private long moves; // Liczba wykonanych ruchów poprawiających
+
+    public LocalSearch(TSPProblem problem, int candidateListSize) {
+        this.problem = problem;
+        this.candidates = problem.getCandidateLists(candidateListSize);
+        int n = problem.getCitiesCount();
+        this.queue = new int[n];
+        this.queued = new boolean[n];
+        this.scratch = new int[n];
+    }
+
+    // Poprawia trasę w miejscu i zwraca jej nową długość (distance - aktualna długość trasy)
+    public int optimize(Tour tour, int distance) {
+        if (tour.size() < 5) {
+            return distance;
+        }
+        for (int i = 0; i < tour.size(); i++) {
+            push(tour.cityAt(i));
+        }
+        while (count > 0) {
+            int city = queue[head];
+            head = head + 1 == queue.length ? 0 : head + 1;
+            count--;
+            queued[city] = false;
+
+            int delta = improveOrOpt(tour, city);
+            if (delta == 0) {
+                delta = improveThreeOpt(tour, city);
+            }
+            if (delta < 0) {
+                distance += delta;
+                moves++;
+                push(city);
+            }
+        }
+        return distance;
+    }
+
+    public long getMoves() {
+        return moves;
+    }
+
+    // Przeniesienie segmentu [s..e] zaczynającego się w mieście s między miasta c -> d.
+    // Kandydaci: c z najkrótszym łukiem c -> s lub d z najkrótszym łukiem e -> d.
+    private int improveOrOpt(Tour tour, int s) {
+        int n = tour.size();
+        int i = tour.positionOf(s);
+        int p = tour.cityBefore(i);
+        for (int length = 1; length <= MAX_SEGMENT_LENGTH && length <= n - 3; length++) {
+            int e = tour.cityAt((i + length - 1) % n);
+            int q = tour.cityAt((i + length) % n);
+            int removeGain = problem.getDistance(p, s) + problem.getDistance(e, q) - problem.getDistance(p, q);
+
+            for (int rank = 0; rank < candidates.size(); rank++) {
+                int c = candidates.predecessor(s, rank);
+                int delta = orOptDelta(tour, i, length, removeGain, s, e, c);
+                if (delta < 0) {
+                    exchangeSegments(tour, p, e, c);
+                    return delta;
+                }
+
+                c = tour.cityBefore(tour.positionOf(candidates.successor(e, rank)));
+                delta = orOptDelta(tour, i, length, removeGain, s, e, c);
+                if (delta < 0) {
+                    exchangeSegments(tour, p, e, c);
+                    return delta;
+                }
+            }
+        }
+        return 0;
+    }
+
+    // Zmiana kosztu wstawienia segmentu za miasto c (0, gdy ruch jest niedozwolony)
+    private int orOptDelta(Tour tour, int from, int length, int removeGain, int s, int e, int c) {
+        int n = tour.size();
+        int relative = tour.positionOf(c) - from;
+        if (relative < 0) {
+            relative += n;
+        }
+        if (relative < length || relative == n - 1) {
+            return 0; // c leży w segmencie lub bezpośrednio przed nim
+        }
+        int d = tour.cityAfter(tour.positionOf(c));
+        return problem.getDistance(c, s) + problem.getDistance(e, d) - problem.getDistance(c, d) - removeGain;
+    }
+
+    // a -> [a'..b] -> [b'..c] -> c'   zmienia się na   a -> [b'..c] -> [a'..b] -> c'.
+    // Łuk a -> b' wybierany z kandydatów a, łuk b -> c' z kandydatów b (kryterium dodatniego zysku).
+    private int improveThreeOpt(Tour tour, int a) {
+        int n = tour.size();
+        int start = tour.positionOf(a);
+        int aNext = tour.cityAfter(start);
+        int removedA = problem.getDistance(a, aNext);
+
+        for (int rank = 0; rank < candidates.size(); rank++) {
+            int bNext = candidates.successor(a, rank);
+            int gain1 = removedA - problem.getDistance(a, bNext);
+            if (gain1 <= 0) {
+                break; // Listy są posortowane - dalsi kandydaci nie dadzą zysku
+            }
+            int bNextRelative = relative(tour, start, bNext);
+            if (bNextRelative < 2) {
+                continue; // Segment [a'..b] byłby pusty
+            }
+            int b = tour.cityBefore(tour.positionOf(bNext));
+
+            for (int rank2 = 0; rank2 < candidates.size(); rank2++) {
+                int cNext = candidates.successor(b, rank2);
+                int gain2 = gain1 + problem.getDistance(b, bNext) - problem.getDistance(b, cNext);
+                if (gain2 <= 0) {
+                    break;
+                }
+                int cNextRelative = cNext == a ? n : relative(tour, start, cNext);
+                if (cNextRelative <= bNextRelative) {
+                    continue; // c' musi leżeć za b', aby segment [b'..c] był niepusty
+                }
+                int c = tour.cityBefore(tour.positionOf(cNext));
+                int delta = problem.getDistance(c, aNext) - problem.getDistance(c, cNext) - gain2;
+                if (delta < 0) {
+                    exchangeSegments(tour, a, b, c);
+                    return delta;
+                }
+            }
+        }
+        return 0;
+    }
+
+    // Zamiana sąsiednich segmentów [a'..b] i [b'..c] leżących za miastem a
+    private void exchangeSegments(Tour tour, int a, int b, int c) {
+        int n = tour.size();
+        int start = tour.positionOf(a);
+        int bRelative = relative(tour, start, b);
+        int cRelative = relative(tour, start, c);
+        push(a);
+        push(tour.cityAfter(start));
+        push(b);
+        push(tour.cityAfter(tour.positionOf(b)));
+        push(c);
+        push(tour.cityAfter(tour.positionOf(c)));
+
+        int first = start + 1 == n ? 0 : start + 1;
+        if (first + cRelative - 1 < n) {
+            // Oba segmenty leżą w tablicy bez zawinięcia - wystarczy przesunąć [b'..c] za a
+            tour.moveSegment(first + bRelative, first + cRelative - 1, start);
+            return;
+        }
+        int k = 0;
+        scratch[k++] = a;
+        for (int r = bRelative + 1; r <= cRelative; r++) {
+            scratch[k++] = tour.cityAt((start + r) % n);
+        }
+        for (int r = 1; r <= bRelative; r++) {
+            scratch[k++] = tour.cityAt((start + r) % n);
+        }
+        for (int r = cRelative + 1; r < n; r++) {
+            scratch[k++] = tour.cityAt((start + r) % n);
+        }
+        tour.setCities(scratch);
+    }
+
+    private static int relative(Tour tour, int start, int city) {
+        int relative = tour.positionOf(city) - start;
+        return relative < 0 ? relative + tour.size() : relative;
+    }
+
+    private void push(int city) {
+        if (!queued[city]) {
+            queued[city] = true;
+            int tail = head + count;
+            queue[tail >= queue.length ? tail - queue.length : tail] = city;
+            count++;
+        }
+    }
+}
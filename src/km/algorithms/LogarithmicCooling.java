@@ -0,0 +1,17 @@
+package km.algorithms;
+
+// Chłodzenie logarytmiczne: T(k) = T0 / (1 + a * ln(1 + k))
+public class LogarithmicCooling implements CoolingSchedule {
+    private final double initialTemperature;
+    private final double coolingRate;
+
+    public LogarithmicCooling(double initialTemperature, double coolingRate) {
+        this.initialTemperature = initialTemperature;
+        this.coolingRate = coolingRate;
+    }
+
+    @Override
+    public double next(double temperature, long iteration) {
+        return initialTemperature / (1 + coolingRate * Math.log(1 + iteration));
+    }
+}
@@ -0,0 +1,42 @@
+package km.algorithms;
+
+import java.util.random.RandomGenerator;
+
+// Kryterium Metropolisa bez wywołania Math.exp w pętli: exp(-x) odczytywany jest z tablicy z interpolacją
+// liniową (błąd względny poniżej 2e-6), a liczba losowa pobierana jest tylko dla ruchów pogarszających.
+// Pogorszenia o więcej niż MAX_EXPONENT temperatur są odrzucane od razu - exp(-40) jest mniejsze
+// od najmniejszej niezerowej wartości nextDouble(), więc taki ruch i tak nie mógłby zostać przyjęty.
+public final class Metropolis {
+    public static final double MAX_EXPONENT = 40.0;
+    private static final int STEPS_PER_UNIT = 256;
+    private static final double[] EXP = new double[(int) (MAX_EXPONENT * STEPS_PER_UNIT) + 2];
+
+    static {
+        for (int i = 0; i < EXP.length; i++) {
+            EXP[i] = Math.exp(-(double) i / STEPS_PER_UNIT);
+        }
+    }
+
+    private Metropolis() {
+    }
+
+    // Czy przyjąć ruch zmieniający długość trasy o delta w danej temperaturze
+    public static boolean accept(int delta, double temperature, RandomGenerator random) {
+        if (delta <= 0) {
+            return true;
+        }
+        double exponent = delta / temperature;
+        if (!(exponent < MAX_EXPONENT)) {
+            return false; // Również temperatura zerowa (wykładnik nieskończony)
+        }
+        return probability(exponent) > random.nextDouble();
+    }
+
+    // exp(-exponent) dla 0 <= exponent < MAX_EXPONENT
+    public static double probability(double exponent) {
+        double position = exponent * STEPS_PER_UNIT;
+        int index = (int) position;
+        double fraction = position - index;
+        return EXP[index] + fraction * (EXP[index + 1] - EXP[index]);
+    }
+}
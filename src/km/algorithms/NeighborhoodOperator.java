@@ -0,0 +1,44 @@
+package km.algorithms;
+
+import km.model.CandidateLists;
+import km.model.TSPProblem;
+import km.model.Tour;
+
+import java.util.random.RandomGenerator;
+
+// Operator sąsiedztwa: losuje ruch, zwraca zmianę długości trasy i wykonuje ruch dopiero na żądanie.
+// Instancje przechowują parametry ostatnio wylosowanego ruchu, więc nie są współdzielone między wątkami.
+public interface NeighborhoodOperator {
+    String getName();
+
+    // Losuje ruch na trasie i zwraca zmianę jej długości (bez modyfikowania trasy)
+    int propose(Tour tour, RandomGenerator random);
+
+    // Odcisk trasy (Tour.hash) po wykonaniu ostatnio wylosowanego ruchu - w O(1), bez modyfikowania trasy
+    long proposedHash(Tour tour);
+
+    // Wykonuje ostatnio wylosowany ruch
+    void apply(Tour tour);
+
+    // Informacja, że ostatnio wylosowany ruch został odrzucony
+    default void rejected() {
+    }
+
+    // Przełącza operator na losowanie ruchów z list kandydatów (dontLookBits może być null)
+    default void useCandidates(CandidateLists candidates, DontLookBits dontLookBits) {
+    }
+
+    static NeighborhoodOperator create(String name, TSPProblem problem) {
+        if ("swap".equalsIgnoreCase(name)) {
+            return new SwapOperator(problem);
+        } else if ("insertion".equalsIgnoreCase(name)) {
+            return new InsertionOperator(problem);
+        } else if ("orOpt".equalsIgnoreCase(name)) {
+            return new OrOptOperator(problem);
+        } else if ("threeOpt".equalsIgnoreCase(name)) {
+            return new ThreeOptOperator(problem);
+        } else {
+            throw new IllegalArgumentException("Unknown neighborhood operator: " + name);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package km.algorithms;
+
+import km.model.TSPProblem;
+
+// Or-opt: przeniesienie bloku 2-3 kolejnych miast w inne miejsce trasy
+public class OrOptOperator extends SegmentMoveOperator {
+    public OrOptOperator(TSPProblem problem) {
+        super(problem, 2, 3);
+    }
+
+    @Override
+    public String getName() {
+        return "orOpt";
+    }
+}
@@ -0,0 +1,46 @@
+package km.algorithms;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Krzyżowanie porządkowe (OX): potomek dziedziczy losowy fragment pierwszego rodzica na tych samych
+// pozycjach, a pozostałe miasta w kolejności, w jakiej występują w drugim rodzicu (za końcem fragmentu)
+public class OrderCrossover implements CrossoverOperator {
+    private final boolean[] used;
+
+    public OrderCrossover(int citiesCount) {
+        this.used = new boolean[citiesCount];
+    }
+
+    @Override
+    public String getName() {
+        return "ox";
+    }
+
+    @Override
+    public void crossover(int[] parentA, int[] parentB, int[] child, RandomGenerator random) {
+        int n = parentA.length;
+        int from = random.nextInt(n);
+        int to = random.nextInt(n);
+        if (from > to) {
+            int tmp = from;
+            from = to;
+            to = tmp;
+        }
+
+        Arrays.fill(used, false);
+        for (int i = from; i <= to; i++) {
+            child[i] = parentA[i];
+            used[parentA[i]] = true;
+        }
+
+        int position = to + 1 == n ? 0 : to + 1;
+        for (int k = 1; k <= n; k++) {
+            int city = parentB[(to + k) % n];
+            if (!used[city]) {
+                child[position] = city;
+                position = position + 1 == n ? 0 : position + 1;
+            }
+        }
+    }
+}
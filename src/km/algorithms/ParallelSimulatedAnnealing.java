@@ -0,0 +1,167 @@
+package km.algorithms;
+
+import km.model.TSPProblem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Równoległe wyżarzanie: kilka niezależnych łańcuchów na wspólnym (tylko do odczytu) problemie,
+// które co exchangeInterval ms publikują swoje najlepsze trasy i w razie potrzeby startują od najlepszej globalnej
+public class ParallelSimulatedAnnealing extends Algorithm {
+    private final TSPProblem problem;
+    private final double initialTemperature;
+    private final double coolingRate;
+    private final long stopTime;
+    private final String initialSolutionMethod;
+    private final String coolingMethod;
+    private final int threads;
+    private final long exchangeInterval;
+    private int candidateListSize;
+    private boolean dontLookBits;
+    private long traceInterval;
+    private boolean localSearch;
+    private long localSearchInterval;
+    private boolean autoTuning;
+    private double targetAcceptance = SimulatedAnnealing.DEFAULT_TARGET_ACCEPTANCE;
+    private TourCache tourCache; // Wspólna dla wszystkich łańcuchów (null - wyłączona)
+    private long tabuTenure;
+    private String neighborhoodOperators = SimulatedAnnealing.DEFAULT_NEIGHBORHOOD_OPERATORS;
+
+    private List<SimulatedAnnealing> chains = List.of();
+    private double iterationsPerSecond;
+    private int bestDistance;
+
+    public ParallelSimulatedAnnealing(TSPProblem problem, double initialTemperature, double coolingRate, long stopTime, String initialSolutionMethod, String coolingMethod, int threads, long exchangeInterval) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.problem = problem;
+        this.initialTemperature = initialTemperature;
+        this.coolingRate = coolingRate;
+        this.stopTime = stopTime;
+        this.initialSolutionMethod = initialSolutionMethod;
+        this.coolingMethod = coolingMethod;
+        this.threads = threads;
+        this.exchangeInterval = exchangeInterval;
+    }
+
+    public void setNeighborhoodOperators(String neighborhoodOperators) {
+        this.neighborhoodOperators = neighborhoodOperators;
+    }
+
+    public void setCandidateLists(int candidateListSize, boolean dontLookBits) {
+        this.candidateListSize = candidateListSize;
+        this.dontLookBits = dontLookBits;
+    }
+
+    public void setTraceInterval(long traceInterval) {
+        this.traceInterval = traceInterval;
+    }
+
+    public void setLocalSearch(boolean localSearch, long localSearchInterval) {
+        this.localSearch = localSearch;
+        this.localSearchInterval = localSearchInterval;
+    }
+
+    public void setAutoTuning(boolean autoTuning, double targetAcceptance) {
+        this.autoTuning = autoTuning;
+        this.targetAcceptance = targetAcceptance;
+    }
+
+    public void setTourCache(TourCache tourCache, long tabuTenure) {
+        this.tourCache = tourCache;
+        this.tabuTenure = tabuTenure;
+    }
+
+    @Override
+    public List<Integer> solve(int optimalSolution) {
+        EliteExchange exchange = new EliteExchange();
+        XoshiroRandom seeds = new XoshiroRandom(seed); // Ziarna łańcuchów wynikają z ziarna całego uruchomienia
+        chains = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            SimulatedAnnealing chain = new SimulatedAnnealing(problem, initialTemperature, coolingRate, stopTime, initialSolutionMethod, coolingMethod);
+            chain.setNeighborhoodOperators(neighborhoodOperators);
+            chain.setCandidateLists(candidateListSize, dontLookBits);
+            chain.setEliteExchange(exchange, exchangeInterval);
+            chain.setTraceInterval(traceInterval);
+            chain.setTraceListener(traceListener);
+            chain.setLocalSearch(localSearch, localSearchInterval);
+            chain.setGapThreshold(gapThreshold);
+            chain.setAutoTuning(autoTuning, targetAcceptance);
+            chain.setTourCache(tourCache, tabuTenure);
+            chain.setChainId(i);
+            chain.setSeed(seeds.nextLong());
+            chains.add(chain);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<Integer>>> results = new ArrayList<>(threads);
+            for (SimulatedAnnealing chain : chains) {
+                results.add(executor.submit(() -> chain.solve(optimalSolution)));
+            }
+
+            List<Integer> bestSolution = null;
+            bestDistance = Integer.MAX_VALUE;
+            iterationsPerSecond = 0.0;
+            for (int i = 0; i < threads; i++) {
+                List<Integer> solution = results.get(i).get();
+                SimulatedAnnealing chain = chains.get(i);
+                iterationsPerSecond += chain.getIterationsPerSecond();
+                if (chain.getBestDistance() < bestDistance) {
+                    bestDistance = chain.getBestDistance();
+                    bestSolution = solution;
+                }
+            }
+            return bestSolution;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parallel annealing interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Annealing chain failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public List<SolverMetrics> getMetrics() {
+        List<SolverMetrics> metrics = new ArrayList<>(chains.size());
+        for (SimulatedAnnealing chain : chains) {
+            metrics.addAll(chain.getMetrics());
+        }
+        return metrics;
+    }
+
+    public int getBestDistance() {
+        return bestDistance;
+    }
+
+    @Override
+    public long getTourCacheHits() {
+        long hits = 0;
+        for (SimulatedAnnealing chain : chains) {
+            hits += chain.getTourCacheHits();
+        }
+        return hits;
+    }
+
+    @Override
+    public long getTourCacheLookups() {
+        long lookups = 0;
+        for (SimulatedAnnealing chain : chains) {
+            lookups += chain.getTourCacheLookups();
+        }
+        return lookups;
+    }
+
+    // Łączna przepustowość wszystkich łańcuchów
+    @Override
+    public double getIterationsPerSecond() {
+        return iterationsPerSecond;
+    }
+}
@@ -0,0 +1,352 @@
+package km.algorithms;
+
+import km.model.CandidateLists;
+import km.model.TSPProblem;
+import km.model.Tour;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Wymiana replik (parallel tempering): drabina replik o stałych temperaturach. Każda replika wykonuje
+// niezależnie serię ruchów Metropolisa na własnym wątku, a po zakończeniu serii sąsiednie repliki
+// wymieniają stany zgodnie z kryterium Metropolisa. Drabina temperatur dobierana jest automatycznie
+// na podstawie próbki zmian kosztu losowych ruchów.
+public class ParallelTempering extends Algorithm {
+    private static final int DELTA_SAMPLES = 2000; // Liczba ruchów próbkowanych przy strojeniu drabiny
+    private static final int DESCENT_MOVES_PER_CITY = 200; // Długość spadku zachłannego przed próbkowaniem
+    private static final double HOT_QUANTILE = 0.25; // Kwantyl pogorszeń, według którego stroi się najgorętszą replikę
+    private static final double HOT_ACCEPTANCE = 0.5; // Prawdopodobieństwo akceptacji tego pogorszenia w najgorętszej replice
+    private static final double COLD_ACCEPTANCE = 0.01; // Prawdopodobieństwo akceptacji najmniejszego pogorszenia w najzimniejszej replice
+
+    private final TSPProblem problem;
+    private final long stopTime;
+    private final int replicasCount;
+    private final int sweepLength;
+    private XoshiroRandom random;
+    private int candidateListSize; // 0 - ruchy losowane jednostajnie
+    private boolean dontLookBits;
+    private long traceInterval;
+    private boolean localSearch;
+    private long localSearchInterval;
+    private String neighborhoodOperators = SimulatedAnnealing.DEFAULT_NEIGHBORHOOD_OPERATORS;
+
+    private double[] temperatures;
+    private List<SolverMetrics> metrics = List.of();
+    private long iterations;
+    private long elapsedTimeNano;
+    private long swapAttempts;
+    private long swapsAccepted;
+    private int bestDistance;
+
+    public ParallelTempering(TSPProblem problem, long stopTime, int replicasCount, int sweepLength) {
+        if (replicasCount < 2) {
+            throw new IllegalArgumentException("Parallel tempering needs at least 2 replicas: " + replicasCount);
+        }
+        this.problem = problem;
+        this.stopTime = stopTime;
+        this.replicasCount = replicasCount;
+        this.sweepLength = sweepLength;
+    }
+
+    public void setNeighborhoodOperators(String neighborhoodOperators) {
+        this.neighborhoodOperators = neighborhoodOperators;
+    }
+
+    // Losowanie ruchów z list size najbliższych kandydatów (0 wyłącza), opcjonalnie z bitami "nie patrz"
+    public void setCandidateLists(int candidateListSize, boolean dontLookBits) {
+        this.candidateListSize = candidateListSize;
+        this.dontLookBits = dontLookBits;
+    }
+
+    public void setTraceInterval(long traceInterval) {
+        this.traceInterval = traceInterval;
+    }
+
+    // Przeszukiwanie lokalne najlepszej trasy na końcu oraz co localSearchInterval ms trasy najzimniejszej repliki
+    public void setLocalSearch(boolean localSearch, long localSearchInterval) {
+        this.localSearch = localSearch;
+        this.localSearchInterval = localSearchInterval;
+    }
+
+    @Override
+    public List<Integer> solve(int optimalSolution) {
+        long startTimeNano = System.nanoTime();
+        long deadline = startTimeNano + stopTime * 1_000_000_000L;
+
+        random = new XoshiroRandom(seed);
+        temperatures = tuneLadder();
+        Replica[] replicas = new Replica[replicasCount]; // replicas[k] pracuje w temperaturze temperatures[k]
+        metrics = new ArrayList<>(replicasCount);
+        for (int k = 0; k < replicasCount; k++) {
+            SolverMetrics replicaMetrics = new SolverMetrics("replica-" + k, traceInterval, traceListener);
+            replicaMetrics.start(startTimeNano, System.currentTimeMillis());
+            replicas[k] = new Replica(problem, createOperatorSelector(), random.split(), replicaMetrics);
+            metrics.add(replicaMetrics);
+        }
+
+        LocalSearch localSearcher = localSearch ? new LocalSearch(problem, candidateListSize > 0 ? candidateListSize : LocalSearch.DEFAULT_CANDIDATE_LIST_SIZE) : null;
+        long nextLocalSearchTime = System.currentTimeMillis() + localSearchInterval;
+        int targetDistance = targetDistance(problem, optimalSolution);
+        iterations = 0;
+        swapAttempts = 0;
+        swapsAccepted = 0;
+        int round = 0;
+
+        ExecutorService executor = Executors.newFixedThreadPool(replicasCount);
+        try {
+            List<Callable<Void>> sweeps = new ArrayList<>(replicasCount);
+            for (int k = 0; k < replicasCount; k++) {
+                int slot = k;
+                sweeps.add(() -> {
+                    replicas[slot].sweep(temperatures[slot], sweepLength);
+                    return null;
+                });
+            }
+
+            while (System.nanoTime() < deadline) {
+                // Serie ruchów wszystkich replik wykonywane są równolegle, bez synchronizacji między nimi
+                for (Future<Void> future : executor.invokeAll(sweeps)) {
+                    future.get();
+                }
+                iterations += (long) sweepLength * replicasCount;
+
+                // Seria ruchów zakończona - najzimniejsza replika może zostać zepchnięta do minimum lokalnego
+                if (localSearcher != null && localSearchInterval > 0 && System.currentTimeMillis() >= nextLocalSearchTime) {
+                    nextLocalSearchTime = System.currentTimeMillis() + localSearchInterval;
+                    replicas[0].polish(localSearcher);
+                }
+
+                int best = bestReplica(replicas).bestDistance;
+                if (best <= targetDistance) {
+                    if (best == optimalSolution) {
+                        System.out.printf("Optimal solution found: %d. Terminating early.%n", best);
+                    } else {
+                        System.out.printf("Lower bound gap reached: %d. Terminating early.%n", best);
+                    }
+                    break;
+                }
+
+                // Wymiana stanów między sąsiednimi temperaturami (naprzemiennie pary parzyste i nieparzyste)
+                for (int k = round & 1; k + 1 < replicasCount; k += 2) {
+                    swapAttempts++;
+                    double exponent = (1.0 / temperatures[k] - 1.0 / temperatures[k + 1]) * (replicas[k].currentDistance - replicas[k + 1].currentDistance);
+                    if (exponent >= 0 || Math.exp(exponent) > random.nextDouble()) {
+                        Replica tmp = replicas[k];
+                        replicas[k] = replicas[k + 1];
+                        replicas[k + 1] = tmp;
+                        swapsAccepted++;
+                    }
+                }
+                round++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parallel tempering interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Replica sweep failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Dopracowanie zwracanej trasy przeszukiwaniem lokalnym
+        if (localSearcher != null) {
+            bestReplica(replicas).polish(localSearcher);
+        }
+
+        elapsedTimeNano = System.nanoTime() - startTimeNano;
+        for (int k = 0; k < replicasCount; k++) {
+            replicas[k].finish(temperatures[k]);
+        }
+        Replica best = bestReplica(replicas);
+        bestDistance = best.bestDistance;
+
+        List<Integer> result = new ArrayList<>(best.bestSolution.length);
+        for (int city : best.bestSolution) {
+            result.add(city);
+        }
+        return result;
+    }
+
+    @Override
+    public List<SolverMetrics> getMetrics() {
+        return metrics;
+    }
+
+    public int getBestDistance() {
+        return bestDistance;
+    }
+
+    // Temperatury drabiny użyte w ostatnim uruchomieniu (od najzimniejszej)
+    public double[] getTemperatures() {
+        return temperatures.clone();
+    }
+
+    // Odsetek zaakceptowanych wymian między replikami
+    public double getSwapAcceptanceRate() {
+        return swapAttempts == 0 ? 0.0 : (double) swapsAccepted / swapAttempts;
+    }
+
+    @Override
+    public double getIterationsPerSecond() {
+        if (elapsedTimeNano == 0) {
+            return 0.0;
+        }
+        return iterations * 1_000_000_000.0 / elapsedTimeNano;
+    }
+
+    // Geometryczna drabina temperatur: najgorętsza replika akceptuje pogorszenie z kwantyla HOT_QUANTILE
+    // z prawdopodobieństwem HOT_ACCEPTANCE, najzimniejsza najmniejsze pogorszenie z prawdopodobieństwem COLD_ACCEPTANCE
+    private double[] tuneLadder() {
+        int n = problem.getCitiesCount();
+        int[] cities = new int[n];
+        for (int i = 0; i < n; i++) {
+            cities[i] = i;
+        }
+        Tour tour = new Tour(cities);
+        AdaptiveOperatorSelector selector = createOperatorSelector();
+
+        // Krótki spadek zachłanny - próbka ma opisywać okolice dobrych tras, a nie trasy losowej
+        TemperatureCalibration.descend(tour, selector, random, (long) DESCENT_MOVES_PER_CITY * n);
+        int[] uphill = TemperatureCalibration.sampleUphillDeltas(tour, selector, random, DELTA_SAMPLES);
+        int count = uphill.length;
+
+        double hot = count == 0 ? 1.0 : TemperatureCalibration.temperatureFor(uphill[(int) (HOT_QUANTILE * (count - 1))], HOT_ACCEPTANCE);
+        double cold = count == 0 ? 1.0 : TemperatureCalibration.temperatureFor(uphill[0], COLD_ACCEPTANCE);
+        cold = Math.min(cold, hot);
+
+        double[] ladder = new double[replicasCount];
+        double ratio = Math.pow(hot / cold, 1.0 / (replicasCount - 1));
+        ladder[0] = cold;
+        for (int k = 1; k < replicasCount; k++) {
+            ladder[k] = ladder[k - 1] * ratio;
+        }
+        return ladder;
+    }
+
+    private AdaptiveOperatorSelector createOperatorSelector() {
+        String[] names = neighborhoodOperators.split(",");
+        NeighborhoodOperator[] operators = new NeighborhoodOperator[names.length];
+        for (int i = 0; i < names.length; i++) {
+            operators[i] = NeighborhoodOperator.create(names[i].trim(), problem);
+        }
+        if (candidateListSize > 0) {
+            CandidateLists candidates = problem.getCandidateLists(candidateListSize);
+            DontLookBits bits = dontLookBits ? new DontLookBits(problem.getCitiesCount()) : null;
+            for (NeighborhoodOperator operator : operators) {
+                operator.useCandidates(candidates, bits);
+            }
+        }
+        return new AdaptiveOperatorSelector(operators);
+    }
+
+    private static Replica bestReplica(Replica[] replicas) {
+        Replica best = replicas[0];
+        for (Replica replica : replicas) {
+            if (replica.bestDistance < best.bestDistance) {
+                best = replica;
+            }
+        }
+        return best;
+    }
+
+    // Pojedyncza replika - stan używany wyłącznie przez jeden wątek w trakcie serii ruchów
+    private static final class Replica {
+        private final TSPProblem problem;
+        private final AdaptiveOperatorSelector operatorSelector;
+        private final XoshiroRandom random;
+        private final SolverMetrics metrics;
+        private final Tour currentSolution;
+        private final int[] bestSolution;
+        private int currentDistance;
+        private int bestDistance;
+        private long iterations;
+        private long accepted;
+        private long improving;
+        private long rejected;
+
+        private Replica(TSPProblem problem, AdaptiveOperatorSelector operatorSelector, XoshiroRandom random, SolverMetrics metrics) {
+            this.problem = problem;
+            this.operatorSelector = operatorSelector;
+            this.random = random;
+            this.metrics = metrics;
+
+            int n = problem.getCitiesCount();
+            int[] cities = new int[n];
+            Arrays.setAll(cities, i -> i);
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = cities[i];
+                cities[i] = cities[j];
+                cities[j] = tmp;
+            }
+            this.currentSolution = new Tour(cities);
+            this.bestSolution = cities.clone();
+            this.currentDistance = currentSolution.length(problem);
+            this.bestDistance = currentDistance;
+            metrics.recordBest(bestDistance);
+        }
+
+        private void sweep(double temperature, int length) {
+            for (int s = 0; s < length; s++) {
+                int operatorIndex = operatorSelector.select(random);
+                NeighborhoodOperator operator = operatorSelector.getOperator(operatorIndex);
+                int delta = operator.propose(currentSolution, random);
+
+                int outcome = AdaptiveOperatorSelector.OUTCOME_REJECTED;
+                if (Metropolis.accept(delta, temperature, random)) {
+                    operator.apply(currentSolution);
+                    currentDistance += delta;
+                    outcome = delta < 0 ? AdaptiveOperatorSelector.OUTCOME_IMPROVED : AdaptiveOperatorSelector.OUTCOME_ACCEPTED;
+                    accepted++;
+                    if (delta < 0) {
+                        improving++;
+                    }
+
+                    if (currentDistance < bestDistance) {
+                        currentSolution.copyTo(bestSolution);
+                        bestDistance = currentDistance;
+                        outcome = AdaptiveOperatorSelector.OUTCOME_NEW_BEST;
+                        metrics.recordBest(bestDistance);
+                    }
+                } else {
+                    operator.rejected();
+                    rejected++;
+                }
+                operatorSelector.reward(operatorIndex, outcome);
+            }
+            iterations += length;
+
+            long now = System.currentTimeMillis();
+            if (metrics.isSampleDue(now)) {
+                metrics.sample(now, iterations, accepted, improving, rejected, temperature, currentDistance, bestDistance);
+            }
+        }
+
+        // Zejście bieżącej i najlepszej trasy do minimum lokalnego
+        private void polish(LocalSearch localSearch) {
+            currentDistance = localSearch.optimize(currentSolution, currentDistance);
+            if (currentDistance < bestDistance) {
+                currentSolution.copyTo(bestSolution);
+                bestDistance = currentDistance;
+                metrics.recordBest(bestDistance);
+            }
+            Tour polished = new Tour(bestSolution);
+            int polishedDistance = localSearch.optimize(polished, bestDistance);
+            if (polishedDistance < bestDistance) {
+                polished.copyTo(bestSolution);
+                bestDistance = polishedDistance;
+                metrics.recordBest(bestDistance);
+            }
+        }
+
+        private void finish(double temperature) {
+            metrics.finish(iterations, accepted, improving, rejected, temperature);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package km.algorithms;
+
+import km.model.TSPProblem;
+import km.model.Tour;
+
+import java.util.random.RandomGenerator;
+
+// Przeniesienie segmentu trasy (bez odwracania) w inne miejsce. Zachowuje kierunek łuków,
+// dlatego dobrze sprawdza się dla asymetrycznych instancji. Zmiana kosztu liczona w O(1).
+public abstract class SegmentMoveOperator extends AbstractNeighborhoodOperator {
+    private final int minLength;
+    private final int maxLength;
+
+    private int from;
+    private int to;
+    private int after;
+    private boolean valid;
+
+    protected SegmentMoveOperator(TSPProblem problem, int minLength, int maxLength) {
+        super(problem);
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public int propose(Tour tour, RandomGenerator random) {
+        int n = tour.size();
+        int longest = Math.min(maxLength, n - 3); // Segment musi zostawić co najmniej 3 miasta poza sobą
+        valid = longest >= minLength;
+        if (!valid) {
+            return 0;
+        }
+
+        int length = minLength == longest ? minLength : minLength + random.nextInt(longest - minLength + 1);
+        from = candidates != null ? pickAnchor(tour, random, n - length + 1) : random.nextInt(n - length + 1);
+        to = from + length - 1;
+
+        // Pozycja docelowa: dowolna poza segmentem i poza miastem bezpośrednio go poprzedzającym.
+        // Z listami kandydatów segment trafia za jeden z najbliższych poprzedników swojego pierwszego miasta.
+        after = candidates != null ? tour.positionOf(candidatePredecessor(tour.cityAt(from), random)) : -1;
+        if (after < 0 || (after >= from - 1 && after <= to) || (from == 0 && after == n - 1)) {
+            after = to + 1 + random.nextInt(n - length - 1);
+            if (after >= n) {
+                after -= n;
+            }
+        }
+
+        return delta(tour, from, to, after);
+    }
+
+    @Override
+    public long proposedHash(Tour tour) {
+        return valid ? tour.hashAfterMoveSegment(from, to, after) : tour.hash();
+    }
+
+    @Override
+    public void apply(Tour tour) {
+        if (valid) {
+            touched(tour.cityBefore(from));
+            touched(tour.cityAt(from));
+            touched(tour.cityAt(to));
+            touched(tour.cityAfter(to));
+            touched(tour.cityAt(after));
+            touched(tour.cityAfter(after));
+            tour.moveSegment(from, to, after);
+        }
+    }
+
+    // p -> [s..e] -> q  oraz  c -> d   zmienia się na   p -> q  oraz  c -> [s..e] -> d
+    protected int delta(Tour tour, int from, int to, int after) {
+        int p = tour.cityBefore(from);
+        int s = tour.cityAt(from);
+        int e = tour.cityAt(to);
+        int q = tour.cityAfter(to);
+        int c = tour.cityAt(after);
+        int d = tour.cityAfter(after);
+        return problem.getDistance(p, q) + problem.getDistance(c, s) + problem.getDistance(e, d)
+                - problem.getDistance(p, s) - problem.getDistance(e, q) - problem.getDistance(c, d);
+    }
+}
@@ -1,19 +1,60 @@
 package km.algorithms;
 
+import km.data.Checkpoint;
+import km.model.CandidateLists;
 import km.model.TSPProblem;
+import km.model.Tour;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Random;
 
 public class SimulatedAnnealing extends Algorithm {
+    private static final int TIME_CHECK_INTERVAL = 1024; // Co ile iteracji odczytywany jest zegar
+    public static final double DEFAULT_TARGET_ACCEPTANCE = 0.5;
+    // Automatyczne strojenie: próbka ruchów, spadek zachłanny przed wyznaczeniem temperatury końcowej,
+    // prawdopodobieństwo przyjęcia najmniejszego pogorszenia na końcu i warunki ponownego podgrzania
+    private static final int CALIBRATION_SAMPLES = 2000;
+    private static final int CALIBRATION_DESCENT_MOVES_PER_CITY = 100;
+    private static final double FINAL_ACCEPTANCE = 0.01;
+    private static final double STALL_FRACTION = 0.05; // Brak nowej najlepszej trasy przez taką część budżetu
+    private static final double STALL_ACCEPTANCE = 0.01; // i odsetek przyjętych ruchów poniżej tej wartości
+    private static final double REHEAT_FRACTION = 0.25; // Podgrzanie do tej części temperatury początkowej
+    public static final String DEFAULT_NEIGHBORHOOD_OPERATORS = "swap,insertion,orOpt,threeOpt";
+
     private final TSPProblem problem;
     private final double initialTemperature;
     private final double coolingRate;
     private final long stopTime;
     private final String initialSolutionMethod;
     private final String coolingMethod;
+    private XoshiroRandom random; // Tworzony od nowa z ziarna w każdym wywołaniu solve()
+    private int candidateListSize; // 0 - ruchy losowane jednostajnie
+    private boolean dontLookBits;
+    private String neighborhoodOperators = DEFAULT_NEIGHBORHOOD_OPERATORS;
+    private EliteExchange eliteExchange; // Wymiana najlepszych tras z innymi łańcuchami (null - praca samodzielna)
+    private long exchangeInterval;
+    private long maxIterations = Long.MAX_VALUE; // Dodatkowy limit iteracji (np. dla powtarzalnych pomiarów)
+    private long traceInterval; // Odstęp między próbkami przebiegu zbieżności w ms (0 - tylko podsumowanie)
+    private int chainId;
+    private boolean localSearch; // Dopracowanie najlepszej trasy przeszukiwaniem lokalnym po zakończeniu wyżarzania
+    private long localSearchInterval; // Odstęp między przeszukiwaniami lokalnymi bieżącej trasy w ms (0 - tylko na końcu)
+    private String checkpointPath; // Plik punktu kontrolnego (null - bez zapisu)
+    private long checkpointInterval; // Odstęp między zapisami punktu kontrolnego w ms (0 - tylko na końcu)
+    private Checkpoint resumeCheckpoint; // Stan, od którego solve() kontynuuje przebieg (null - nowy przebieg)
+    private int[] initialTour; // Trasa początkowa z wcześniejszej sesji (null - generowana metodą initialSolutionMethod)
+    private boolean autoTuning; // Temperatura początkowa i chłodzenie dobierane do instancji i budżetu zamiast z konfiguracji
+    private double targetAcceptance = DEFAULT_TARGET_ACCEPTANCE; // Początkowe średnie prawdopodobieństwo przyjęcia pogorszenia
+    private TourCache tourCache; // Pamięć odwiedzonych tras wspólna dla łańcuchów i uruchomień na tej instancji (null - wyłączona)
+    private long tabuTenure; // Odrzucanie sąsiadów odwiedzonych w ciągu tylu ostatnich iteracji (0 - tylko statystyka trafień)
+
+    private long iterations; // Liczba wykonanych iteracji w ostatnim wywołaniu solve()
+    private long elapsedTimeNano; // Czas trwania ostatniego wywołania solve()
+    private int bestDistance; // Długość najlepszej trasy z ostatniego wywołania solve()
+    private SolverMetrics metrics; // Liczniki i przebieg ostatniego wywołania solve()
+    private int reheats; // Liczba podgrzań w ostatnim wywołaniu solve()
+    private long tourCacheHits; // Trafienia pamięci tras w ostatnim wywołaniu solve()
+    private long tourCacheLookups;
 
     public SimulatedAnnealing(TSPProblem problem, double initialTemperature, double coolingRate, long stopTime, String initialSolutionMethod, String coolingMethod) {
         this.problem = problem;
@@ -27,59 +68,430 @@ public class SimulatedAnnealing extends Algorithm {
     @Override
     public List<Integer> solve(int optimalSolution) {
         int citiesCount = problem.getCitiesCount();
-        Random random = new Random();
+        long startTimeNano = System.nanoTime();
+        random = new XoshiroRandom(seed);
+        CoolingSchedule coolingSchedule = CoolingSchedule.create(coolingMethod, initialTemperature, coolingRate);
+        metrics = new SolverMetrics("chain-" + chainId, traceInterval, traceListener);
+        metrics.start(startTimeNano, System.currentTimeMillis());
+
+        // Trasa oparta na tablicy int - ruchy wykonywane są w miejscu, bez kopiowania.
+        // Wznowienie odtwarza cały stan łańcucha, ciepły start zastępuje tylko trasę początkową.
+        AdaptiveOperatorSelector operatorSelector = createOperatorSelector();
+        Tour currentSolution;
+        int[] bestSolution;
+        if (resumeCheckpoint != null) {
+            // Temperatura startowa (cel podgrzania), chłodzenie i stan wykrywania stagnacji pochodzą z kalibracji
+            // na trasie i przepustowości pierwszej sesji - ponowna kalibracja dałaby inny przebieg niż bez przerwy
+            if (autoTuning) {
+                throw new IllegalArgumentException("Auto-tuned runs cannot be resumed from a checkpoint");
+            }
+            if (!configuration().equals(resumeCheckpoint.getConfiguration())) {
+                throw new IllegalArgumentException("Checkpoint was written with different solver settings: "
+                        + resumeCheckpoint.getConfiguration() + ", current: " + configuration());
+            }
+            currentSolution = new Tour(validateTour(resumeCheckpoint.getCurrentTour()));
+            bestSolution = validateTour(resumeCheckpoint.getBestTour()).clone();
+            random.setState(resumeCheckpoint.getRandomState());
+            operatorSelector.setState(resumeCheckpoint.getOperatorState());
+        } else {
+            currentSolution = new Tour(initialTour != null ? validateTour(initialTour) : generateInitialSolution(citiesCount));
+            bestSolution = currentSolution.getCities().clone();
+        }
+        LocalSearch localSearcher = localSearch ? new LocalSearch(problem, candidateListSize > 0 ? candidateListSize : LocalSearch.DEFAULT_CANDIDATE_LIST_SIZE) : null;
 
-        List<Integer> currentSolution = generateInitialSolution(citiesCount);
-        List<Integer> bestSolution = new ArrayList<>(currentSolution);
+        int currentDistance = currentSolution.length(problem);
+        int bestDistance = new Tour(bestSolution).length(problem);
+        int targetDistance = targetDistance(problem, optimalSolution); // Optimum lub dopuszczalna luka do dolnej granicy
+        metrics.recordInitialSolution(System.nanoTime() - startTimeNano);
+        metrics.recordBest(bestDistance);
 
-        int currentDistance = calculateTotalDistance(currentSolution);
-        int bestDistance = currentDistance;
+        // Automatyczne strojenie: temperatura początkowa z próbki ruchów, chłodzenie z budżetu i przepustowości
+        double startTemperature = initialTemperature;
+        AdaptiveCooling adaptiveCooling = null;
+        if (autoTuning) {
+            Tour sample = new Tour(currentSolution.getCities());
+            XoshiroRandom calibrationRandom = new XoshiroRandom(~seed); // Osobny strumień - nie zmienia przebiegu właściwego
+            AdaptiveOperatorSelector calibrationSelector = createOperatorSelector();
+
+            // Krótki spadek zachłanny przed próbkowaniem - pogorszenia mają opisywać okolice dobrych tras,
+            // a nie trasy losowej. Służy też jako pomiar przepustowości przed właściwym przebiegiem.
+            long descentMoves = (long) CALIBRATION_DESCENT_MOVES_PER_CITY * citiesCount;
+            long descentStartNano = System.nanoTime();
+            TemperatureCalibration.descend(sample, calibrationSelector, calibrationRandom, descentMoves);
+            double movesPerMs = descentMoves * 1_000_000.0 / Math.max(1, System.nanoTime() - descentStartNano);
+            int[] localUphill = TemperatureCalibration.sampleUphillDeltas(sample, calibrationSelector, calibrationRandom, CALIBRATION_SAMPLES);
+            startTemperature = TemperatureCalibration.temperatureForAverage(localUphill, targetAcceptance);
+            double finalTemperature = Math.min(startTemperature, localUphill.length == 0
+                    ? startTemperature * FINAL_ACCEPTANCE : TemperatureCalibration.temperatureFor(localUphill[0], FINAL_ACCEPTANCE));
+
+            double plannedIterations = maxIterations != Long.MAX_VALUE ? maxIterations : movesPerMs * stopTime * 1000;
+            if ("logarithmic".equalsIgnoreCase(coolingMethod)) {
+                // T(N) = finalTemperature dla przewidywanej liczby iteracji N
+                coolingSchedule = new LogarithmicCooling(startTemperature, (startTemperature / finalTemperature - 1) / Math.log(1 + plannedIterations));
+            } else {
+                adaptiveCooling = new AdaptiveCooling(finalTemperature);
+                adaptiveCooling.retarget(startTemperature, plannedIterations);
+                coolingSchedule = adaptiveCooling;
+            }
+        }
+        reheats = 0;
 
-        double temperature = initialTemperature;
+        double temperature = resumeCheckpoint != null ? resumeCheckpoint.getTemperature() : startTemperature;
         long startTime = System.currentTimeMillis();
-        int iteration = 1;
+        // Dodawanie z nasyceniem - bardzo duży stopTime (np. Long.MAX_VALUE / 1000 w pomiarach z limitem iteracji)
+        // nie może przepełnić terminu do wartości ujemnej
+        long deadline = stopTime >= (Long.MAX_VALUE - startTime) / 1000 ? Long.MAX_VALUE : startTime + stopTime * 1000;
+        long nextExchangeTime = startTime + exchangeInterval;
+        long nextLocalSearchTime = startTime + localSearchInterval;
+        long nextCheckpointTime = startTime + checkpointInterval;
+        long firstIteration = resumeCheckpoint != null ? resumeCheckpoint.getIteration() : 1;
+        long iteration = firstIteration;
+        long cacheHits = 0;
+        long cacheMisses = 0;
+        long cacheOwner = tourCache != null ? tourCache.newOwner() : 0; // Tabu porównuje tylko znaczniki tego przebiegu
+        if (tourCache != null) {
+            tourCache.put(currentSolution.hash(), cacheOwner, iteration);
+        }
+        long accepted = 0;
+        long improving = 0;
+        long rejected = 0;
+        int untilTimeCheck = 1;
+        long lastImprovementIteration = firstIteration; // Stan wykrywania stagnacji przy automatycznym strojeniu
+        int stallBestDistance = bestDistance;
+        long acceptedAtCheck = 0;
+        long iterationAtCheck = firstIteration;
+
+        while (iteration - firstIteration < maxIterations) {
+            // Zegar, wymiana, przeszukiwanie lokalne i próbkowanie przebiegu sprawdzane są co TIME_CHECK_INTERVAL
+            // iteracji - odczyt czasu kosztuje tyle co kilka ruchów, a ruch trwa kilkadziesiąt nanosekund
+            if (--untilTimeCheck == 0) {
+                untilTimeCheck = TIME_CHECK_INTERVAL;
+                long now = System.currentTimeMillis();
+                if (now >= deadline) {
+                    break;
+                }
 
-        while ((System.currentTimeMillis() - startTime) < stopTime * 1000) {
-            List<Integer> newSolution = generateNeighbor(currentSolution);
-            int newDistance = calculateTotalDistance(newSolution);
+                // Okresowa wymiana z pozostałymi łańcuchami: publikacja własnej najlepszej trasy
+                // i restart od najlepszej globalnej, jeśli inny łańcuch znalazł lepszą
+                if (eliteExchange != null && now >= nextExchangeTime) {
+                    nextExchangeTime = now + exchangeInterval;
+                    eliteExchange.offer(bestSolution, bestDistance);
+                    EliteExchange.Elite elite = eliteExchange.get();
+                    if (elite.getDistance() < bestDistance) {
+                        currentSolution.setCities(elite.getTour());
+                        currentDistance = elite.getDistance();
+                        System.arraycopy(elite.getTour(), 0, bestSolution, 0, citiesCount);
+                        bestDistance = currentDistance;
+                        metrics.recordBest(bestDistance);
+                    }
+                    if (bestDistance <= targetDistance) {
+                        break; // Inny łańcuch znalazł wystarczająco dobre rozwiązanie
+                    }
+                }
 
-            if (acceptanceProbability(currentDistance, newDistance, temperature) > random.nextDouble()) {
-                currentSolution = new ArrayList<>(newSolution);
-                currentDistance = newDistance;
+                // Hybryda memetyczna: okresowe zejście bieżącej trasy do minimum lokalnego
+                if (localSearcher != null && localSearchInterval > 0 && now >= nextLocalSearchTime) {
+                    nextLocalSearchTime = now + localSearchInterval;
+                    currentDistance = localSearcher.optimize(currentSolution, currentDistance);
+                    if (currentDistance < bestDistance) {
+                        currentSolution.copyTo(bestSolution);
+                        bestDistance = currentDistance;
+                        metrics.recordBest(bestDistance);
+                    }
+                    if (bestDistance <= targetDistance) {
+                        break;
+                    }
+                }
+
+                // Przeliczenie chłodzenia na pozostały budżet i podgrzanie, gdy przebieg utknął:
+                // brak nowej najlepszej trasy przez STALL_FRACTION budżetu i prawie żadnych przyjętych ruchów
+                if (adaptiveCooling != null) {
+                    long done = iteration - firstIteration;
+                    double remaining = maxIterations != Long.MAX_VALUE
+                            ? maxIterations - done
+                            : (now > startTime ? (double) done / (now - startTime) : 0.0) * (deadline - now);
+                    if (bestDistance < stallBestDistance) {
+                        stallBestDistance = bestDistance;
+                        lastImprovementIteration = iteration;
+                    }
+                    double windowAcceptance = iteration > iterationAtCheck ? (double) (accepted - acceptedAtCheck) / (iteration - iterationAtCheck) : 1.0;
+                    acceptedAtCheck = accepted;
+                    iterationAtCheck = iteration;
+                    double stallIterations = STALL_FRACTION * (done + remaining);
+                    if (iteration - lastImprovementIteration > stallIterations && windowAcceptance < STALL_ACCEPTANCE && remaining > 2 * stallIterations) {
+                        temperature = Math.max(temperature, REHEAT_FRACTION * startTemperature);
+                        lastImprovementIteration = iteration;
+                        reheats++;
+                    }
+                    if (remaining > 0) {
+                        adaptiveCooling.retarget(temperature, remaining);
+                    }
+                }
+
+                if (checkpointPath != null && checkpointInterval > 0 && now >= nextCheckpointTime) {
+                    nextCheckpointTime = now + checkpointInterval;
+                    writeCheckpoint(currentSolution, bestSolution, temperature, iteration, operatorSelector);
+                }
+
+                if (metrics.isSampleDue(now)) {
+                    metrics.sample(now, iteration - firstIteration, accepted, improving, rejected, temperature, currentDistance, bestDistance);
+                }
             }
 
-            if (currentDistance < bestDistance) {
-                bestSolution = new ArrayList<>(currentSolution);
-                bestDistance = currentDistance;
+            // Wybór operatora sąsiedztwa, losowanie ruchu i obliczenie zmiany kosztu bez modyfikacji trasy
+            int operatorIndex = operatorSelector.select(random);
+            NeighborhoodOperator operator = operatorSelector.getOperator(operatorIndex);
+            int delta = operator.propose(currentSolution, random);
+
+            // Sąsiad znaleziony już przez dowolny łańcuch - odcisk liczony w O(1) z łuków ruchu.
+            // Przy włączonym tabu ruch do trasy odwiedzonej niedawno przez ten przebieg jest odrzucany bez losowania akceptacji.
+            boolean tabu = false;
+            if (tourCache != null) {
+                long age = tourCache.age(operator.proposedHash(currentSolution), cacheOwner, iteration);
+                if (age == TourCache.MISSING) {
+                    cacheMisses++;
+                } else {
+                    cacheHits++;
+                    tabu = age < tabuTenure;
+                }
             }
 
-            // Chłodzenie: wybór metody na podstawie konfiguracji
-            if ("logarithmic".equalsIgnoreCase(coolingMethod)) {
-                temperature = logCooling(iteration); // Logarytmiczne chłodzenie
+            // Ruch wykonywany jest tylko po akceptacji
+            int outcome = AdaptiveOperatorSelector.OUTCOME_REJECTED;
+            if (!tabu && Metropolis.accept(delta, temperature, random)) {
+                operator.apply(currentSolution);
+                currentDistance += delta;
+                if (tourCache != null) {
+                    tourCache.put(currentSolution.hash(), cacheOwner, iteration);
+                }
+                outcome = delta < 0 ? AdaptiveOperatorSelector.OUTCOME_IMPROVED : AdaptiveOperatorSelector.OUTCOME_ACCEPTED;
+                accepted++;
+                if (delta < 0) {
+                    improving++;
+                }
+
+                if (currentDistance < bestDistance) {
+                    currentSolution.copyTo(bestSolution);
+                    bestDistance = currentDistance;
+                    outcome = AdaptiveOperatorSelector.OUTCOME_NEW_BEST;
+                    metrics.recordBest(bestDistance);
+                }
             } else {
-                temperature *= coolingRate;
+                operator.rejected();
+                rejected++;
             }
+            operatorSelector.reward(operatorIndex, outcome);
+
+            temperature = coolingSchedule.next(temperature, iteration);
+            iteration++; // Przed możliwym wyjściem - punkt kontrolny zawsze wskazuje pierwszą niewykonaną iterację
 
-            // Jeśli znaleziono optymalne rozwiązanie, zakończ wcześniej
-            if (currentDistance == optimalSolution) {
-                System.out.printf("Optimal solution found: %d. Terminating early.%n", currentDistance);
+            // Jeśli znaleziono optymalne rozwiązanie (lub osiągnięto zadaną lukę), zakończ wcześniej
+            if (bestDistance <= targetDistance) {
+                if (bestDistance == optimalSolution) {
+                    System.out.printf("Optimal solution found: %d. Terminating early.%n", bestDistance);
+                } else {
+                    System.out.printf("Lower bound gap reached: %d. Terminating early.%n", bestDistance);
+                }
                 break;
             }
+        }
+
+        // Dopracowanie zwracanej trasy - wyżarzanie kończy się zwykle przed osiągnięciem minimum lokalnego
+        if (localSearcher != null && bestDistance > targetDistance) {
+            Tour polished = new Tour(bestSolution);
+            int polishedDistance = localSearcher.optimize(polished, bestDistance);
+            if (polishedDistance < bestDistance) {
+                polished.copyTo(bestSolution);
+                bestDistance = polishedDistance;
+                metrics.recordBest(bestDistance);
+            }
+        }
+
+        if (checkpointPath != null) {
+            writeCheckpoint(currentSolution, bestSolution, temperature, iteration, operatorSelector);
+        }
+
+        tourCacheHits = cacheHits;
+        tourCacheLookups = cacheHits + cacheMisses;
+        iterations = iteration - firstIteration;
+        elapsedTimeNano = System.nanoTime() - startTimeNano;
+        metrics.finish(iterations, accepted, improving, rejected, temperature);
+        this.bestDistance = bestDistance;
+        if (eliteExchange != null) {
+            eliteExchange.offer(bestSolution, bestDistance);
+        }
+
+        return toList(bestSolution);
+    }
+
+    // Lista operatorów sąsiedztwa oddzielonych przecinkami, np. "swap,orOpt"
+    public void setNeighborhoodOperators(String neighborhoodOperators) {
+        this.neighborhoodOperators = neighborhoodOperators;
+    }
+
+    // Losowanie ruchów z list size najbliższych kandydatów (0 wyłącza), opcjonalnie z bitami "nie patrz"
+    public void setCandidateLists(int candidateListSize, boolean dontLookBits) {
+        this.candidateListSize = candidateListSize;
+        this.dontLookBits = dontLookBits;
+    }
+
+    // Podłączenie łańcucha do wymiany tras; exchangeInterval - odstęp między wymianami w ms
+    public void setEliteExchange(EliteExchange eliteExchange, long exchangeInterval) {
+        this.eliteExchange = eliteExchange;
+        this.exchangeInterval = exchangeInterval;
+    }
+
+    // Odstęp między próbkami przebiegu zbieżności w ms (0 - zbierane jest tylko podsumowanie)
+    public void setTraceInterval(long traceInterval) {
+        this.traceInterval = traceInterval;
+    }
 
-            iteration++;
+    // Przeszukiwanie lokalne (or-opt i 3-opt bez odwracania) na końcu oraz co localSearchInterval ms (0 - tylko na końcu)
+    public void setLocalSearch(boolean localSearch, long localSearchInterval) {
+        this.localSearch = localSearch;
+        this.localSearchInterval = localSearchInterval;
+    }
+
+    // Zapis stanu łańcucha do pliku co checkpointInterval ms (0 - tylko na końcu) i po zakończeniu solve()
+    public void setCheckpoint(String checkpointPath, long checkpointInterval) {
+        this.checkpointPath = checkpointPath;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    // Kolejne solve() kontynuuje przebieg zapisany w punkcie kontrolnym (temperatura, iteracja, generator);
+    // niedostępne przy automatycznym strojeniu
+    public void resumeFrom(Checkpoint checkpoint) {
+        this.resumeCheckpoint = checkpoint;
+    }
+
+    // Pamięć odwiedzonych tras (null - wyłączona), zwykle wspólna dla wszystkich łańcuchów i uruchomień na instancji,
+    // i opcjonalne tabu: ruch do trasy odwiedzonej przez ten przebieg w ciągu tabuTenure ostatnich iteracji
+    // jest odrzucany (0 - tylko liczenie trafień)
+    public void setTourCache(TourCache tourCache, long tabuTenure) {
+        this.tourCache = tourCache;
+        this.tabuTenure = tabuTenure;
+    }
+
+    // Ciepły start: wyżarzanie zaczyna się od podanej trasy w temperaturze początkowej
+    public void setInitialTour(int[] initialTour) {
+        this.initialTour = initialTour;
+    }
+
+    // Temperatura początkowa dobierana tak, aby pogorszenia były przyjmowane średnio z prawdopodobieństwem
+    // targetAcceptance, a chłodzenie tak, aby w całym budżecie (czas lub maxIterations) zejść do temperatury,
+    // w której najmniejsze pogorszenie przyjmowane jest rzadko. Przy chłodzeniu geometrycznym współczynnik
+    // przeliczany jest w trakcie przebiegu z mierzonej przepustowości, a utknięcie kończy się podgrzaniem.
+    // initialTemperature i coolingRate z konstruktora są wtedy pomijane.
+    public void setAutoTuning(boolean autoTuning, double targetAcceptance) {
+        if (targetAcceptance <= 0 || targetAcceptance >= 1) {
+            throw new IllegalArgumentException("Target acceptance must be in (0, 1): " + targetAcceptance);
         }
+        this.autoTuning = autoTuning;
+        this.targetAcceptance = targetAcceptance;
+    }
+
+    // Numer łańcucha używany w nazwie metryk przy pracy równoległej
+    public void setChainId(int chainId) {
+        this.chainId = chainId;
+    }
 
-        return bestSolution;
+    public void setMaxIterations(long maxIterations) {
+        this.maxIterations = maxIterations;
     }
 
-    // Logarytmiczne chłodzenie
-    private double logCooling(int iteration) {
-        return initialTemperature / (1 + coolingRate * Math.log(1 + iteration));
+    public int getBestDistance() {
+        return bestDistance;
     }
 
+    // Liczba podgrzań przy automatycznym strojeniu w ostatnim uruchomieniu
+    public int getReheats() {
+        return reheats;
+    }
+
+    @Override
+    public long getTourCacheHits() {
+        return tourCacheHits;
+    }
+
+    @Override
+    public long getTourCacheLookups() {
+        return tourCacheLookups;
+    }
+
+    @Override
+    public List<SolverMetrics> getMetrics() {
+        return metrics == null ? List.of() : List.of(metrics);
+    }
+
+    // Liczba iteracji wykonanych w ostatnim uruchomieniu
+    public long getIterations() {
+        return iterations;
+    }
+
+    // Przepustowość ostatniego uruchomienia (iteracje na sekundę)
+    @Override
+    public double getIterationsPerSecond() {
+        if (elapsedTimeNano == 0) {
+            return 0.0;
+        }
+        return iterations * 1_000_000_000.0 / elapsedTimeNano;
+    }
+
+    private void writeCheckpoint(Tour currentSolution, int[] bestSolution, double temperature, long iteration, AdaptiveOperatorSelector operatorSelector) {
+        Checkpoint checkpoint = new Checkpoint(currentSolution.getCities().clone(), bestSolution.clone(), temperature, iteration,
+                random.getState(), operatorSelector.getState(), configuration());
+        try {
+            checkpoint.write(checkpointPath);
+        } catch (IOException e) {
+            // Nieudany zapis nie przerywa obliczeń - pozostaje poprzedni punkt kontrolny
+            System.err.println("Nie udało się zapisać punktu kontrolnego " + checkpointPath + ": " + e.getMessage());
+        }
+    }
+
+    // Ustawienia wpływające na przebieg łańcucha - wznowienie wymaga tych samych, co przy zapisie punktu kontrolnego
+    // (ziarno jest pomijane, bo stan generatora odtwarzany jest z punktu)
+    private String configuration() {
+        return "cooling=" + coolingMethod + ";initialTemperature=" + initialTemperature + ";coolingRate=" + coolingRate
+                + ";autoTuning=" + autoTuning + ";targetAcceptance=" + targetAcceptance
+                + ";operators=" + neighborhoodOperators + ";candidateListSize=" + candidateListSize + ";dontLookBits=" + dontLookBits
+                + ";localSearch=" + localSearch + ";localSearchInterval=" + localSearchInterval
+                + ";tourCacheSize=" + (tourCache != null ? tourCache.getCapacity() : 0) + ";tabuTenure=" + tabuTenure;
+    }
+
+    // Trasa z pliku musi być permutacją miast tej instancji
+    private int[] validateTour(int[] tour) {
+        int citiesCount = problem.getCitiesCount();
+        boolean[] seen = new boolean[citiesCount];
+        if (tour.length != citiesCount) {
+            throw new IllegalArgumentException("Tour has " + tour.length + " cities, instance has " + citiesCount);
+        }
+        for (int city : tour) {
+            if (city < 0 || city >= citiesCount || seen[city]) {
+                throw new IllegalArgumentException("Tour is not a permutation of the instance cities");
+            }
+            seen[city] = true;
+        }
+        return tour;
+    }
+
+    private AdaptiveOperatorSelector createOperatorSelector() {
+        String[] names = neighborhoodOperators.split(",");
+        NeighborhoodOperator[] operators = new NeighborhoodOperator[names.length];
+        for (int i = 0; i < names.length; i++) {
+            operators[i] = NeighborhoodOperator.create(names[i].trim(), problem);
+        }
+        if (candidateListSize > 0) {
+            CandidateLists candidates = problem.getCandidateLists(candidateListSize);
+            DontLookBits bits = dontLookBits ? new DontLookBits(problem.getCitiesCount()) : null;
+            for (NeighborhoodOperator operator : operators) {
+                operator.useCandidates(candidates, bits);
+            }
+        }
+        return new AdaptiveOperatorSelector(operators);
+    }
 
     // Wybór metody generowania początkowego rozwiązania
-    private List<Integer> generateInitialSolution(int citiesCount) {
+    private int[] generateInitialSolution(int citiesCount) {
         if ("random".equalsIgnoreCase(initialSolutionMethod)) {
             return generateRandomSolution(citiesCount);
         } else if ("nearestNeighbor".equalsIgnoreCase(initialSolutionMethod)) {
@@ -89,32 +501,36 @@ public class SimulatedAnnealing extends Algorithm {
         }
     }
 
-    // Metoda losowego generowania rozwiązania
-    private List<Integer> generateRandomSolution(int citiesCount) {
-        List<Integer> solution = new ArrayList<>();
+    // Metoda losowego generowania rozwiązania (tasowanie Fishera-Yatesa)
+    private int[] generateRandomSolution(int citiesCount) {
+        int[] solution = new int[citiesCount];
         for (int i = 0; i < citiesCount; i++) {
-            solution.add(i);
+            solution[i] = i;
+        }
+        for (int i = citiesCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = solution[i];
+            solution[i] = solution[j];
+            solution[j] = tmp;
         }
-        Collections.shuffle(solution);
         return solution;
     }
 
     // Metoda zachłanna (nearest neighbor) do generowania rozwiązania
-    private List<Integer> generateNearestNeighborSolution(int citiesCount) {
+    private int[] generateNearestNeighborSolution(int citiesCount) {
         boolean[] visited = new boolean[citiesCount];
-        List<Integer> path = new ArrayList<>();
+        int[] path = new int[citiesCount];
 
         // Losowy wybór pierwszego miasta
-        Random random = new Random();
         int currentCity = random.nextInt(citiesCount);
-        path.add(currentCity);
+        path[0] = currentCity;
         visited[currentCity] = true; // Dodanie miasta początkowego do ścieżki i oznaczenie jako odwiedzone
 
-        for (int i = 1; i < problem.getCitiesCount(); i++) {
+        for (int i = 1; i < citiesCount; i++) {
             int nextCity = -1;
             int shortestDistance = Integer.MAX_VALUE;
 
-            for (int j = 0; j < problem.getCitiesCount(); j++) {
+            for (int j = 0; j < citiesCount; j++) {
                 if (!visited[j] && problem.getDistance(currentCity, j) < shortestDistance) {
                     nextCity = j;
                     shortestDistance = problem.getDistance(currentCity, j);
@@ -122,7 +538,7 @@ public class SimulatedAnnealing extends Algorithm {
             }
 
             currentCity = nextCity;
-            path.add(currentCity);
+            path[i] = currentCity;
             visited[currentCity] = true; // Dodanie wybranego miasta do ścieżki i oznaczenie jako odwiedzone
         }
 
@@ -130,28 +546,11 @@ public class SimulatedAnnealing extends Algorithm {
     }
 
 
-    private int calculateTotalDistance(List<Integer> solution) {
-        int distance = 0;
-        for (int i = 0; i < solution.size() - 1; i++) {
-            distance += problem.getDistance(solution.get(i), solution.get(i + 1));
-        }
-        distance += problem.getDistance(solution.get(solution.size() - 1), solution.get(0));
-        return distance;
-    }
-
-    private double acceptanceProbability(int currentDistance, int newDistance, double temperature) {
-        if (newDistance < currentDistance) {
-            return 1.0;
+    private List<Integer> toList(int[] solution) {
+        List<Integer> result = new ArrayList<>(solution.length);
+        for (int city : solution) {
+            result.add(city);
         }
-        return Math.exp((currentDistance - newDistance) / temperature);
-    }
-
-    private List<Integer> generateNeighbor(List<Integer> solution) {
-        List<Integer> neighbor = new ArrayList<>(solution);
-        Random random = new Random();
-        int i = random.nextInt(neighbor.size());
-        int j = random.nextInt(neighbor.size());
-        Collections.swap(neighbor, i, j);
-        return neighbor;
+        return result;
     }
 }
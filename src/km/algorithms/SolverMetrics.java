@@ -0,0 +1,114 @@
+package km.algorithms;
+
+// Liczniki i przebieg zbieżności jednego łańcucha. Obiekt zapisywany jest wyłącznie przez wątek łańcucha
+// (bez blokad), a podsumowanie odczytywane dopiero po zakończeniu solve(). Próbki (co sampleInterval ms)
+// i każda poprawa najlepszej trasy nie są gromadzone w pamięci, tylko od razu przekazywane do TraceListener.
+public class SolverMetrics {
+    private final String name;
+    private final long sampleInterval;
+    private final TraceListener listener; // null - bez przebiegu, tylko podsumowanie
+    private long startTimeNano;
+    private long nextSampleTime;
+
+    // Podsumowanie
+    private long iterations;
+    private long accepted;
+    private long improving;
+    private long rejected;
+    private double temperature;
+    private int bestDistance = Integer.MAX_VALUE;
+    private long timeToBestNano;
+    private long initialSolutionTimeNano;
+    private long searchTimeNano;
+
+    // sampleInterval - odstęp między próbkami w ms (0 - bez próbek, tylko podsumowanie)
+    public SolverMetrics(String name, long sampleInterval, TraceListener listener) {
+        this.name = name;
+        this.sampleInterval = sampleInterval;
+        this.listener = listener;
+    }
+
+    public void start(long startTimeNano, long startTimeMillis) {
+        this.startTimeNano = startTimeNano;
+        this.nextSampleTime = startTimeMillis + sampleInterval;
+    }
+
+    // Czas przygotowania rozwiązania początkowego (faza przed właściwym przeszukiwaniem)
+    public void recordInitialSolution(long timeNano) {
+        this.initialSolutionTimeNano = timeNano;
+    }
+
+    public void recordBest(int distance) {
+        long elapsed = System.nanoTime() - startTimeNano;
+        bestDistance = distance;
+        timeToBestNano = elapsed;
+        if (listener != null) {
+            listener.best(this, elapsed, distance);
+        }
+    }
+
+    // Czy nadszedł czas na kolejną próbkę - tanie porównanie wywoływane w pętli głównej
+    public boolean isSampleDue(long nowMillis) {
+        return sampleInterval > 0 && nowMillis >= nextSampleTime;
+    }
+
+    public void sample(long nowMillis, long iterations, long accepted, long improving, long rejected, double temperature, int currentDistance, int bestDistance) {
+        nextSampleTime = nowMillis + sampleInterval;
+        if (listener != null) {
+            listener.sample(this, System.nanoTime() - startTimeNano, iterations, accepted, improving, rejected, temperature, currentDistance, bestDistance);
+        }
+    }
+
+    public void finish(long iterations, long accepted, long improving, long rejected, double temperature) {
+        this.iterations = iterations;
+        this.accepted = accepted;
+        this.improving = improving;
+        this.rejected = rejected;
+        this.temperature = temperature;
+        this.searchTimeNano = System.nanoTime() - startTimeNano - initialSolutionTimeNano;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getIterations() {
+        return iterations;
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public long getImproving() {
+        return improving;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public double getTemperature() {
+        return temperature;
+    }
+
+    public int getBestDistance() {
+        return bestDistance;
+    }
+
+    public long getTimeToBestNano() {
+        return timeToBestNano;
+    }
+
+    public long getInitialSolutionTimeNano() {
+        return initialSolutionTimeNano;
+    }
+
+    public long getSearchTimeNano() {
+        return searchTimeNano;
+    }
+
+    public double getAcceptanceRate() {
+        return iterations == 0 ? 0.0 : (double) accepted / iterations;
+    }
+}
@@ -0,0 +1,90 @@
+package km.algorithms;
+
+import km.model.TSPProblem;
+import km.model.Tour;
+
+import java.util.random.RandomGenerator;
+
+// Zamiana miejscami dwóch miast - zmiana kosztu liczona w O(1) z łuków dotkniętych ruchem
+public class SwapOperator extends AbstractNeighborhoodOperator {
+    private int i;
+    private int j;
+
+    public SwapOperator(TSPProblem problem) {
+        super(problem);
+    }
+
+    @Override
+    public String getName() {
+        return "swap";
+    }
+
+    @Override
+    public int propose(Tour tour, RandomGenerator random) {
+        int n = tour.size();
+        if (candidates != null) {
+            // Miasto za wylosowanym miastem a zamieniane jest z jednym z najbliższych następników a
+            int position = pickAnchor(tour, random, n);
+            i = position == n - 1 ? 0 : position + 1;
+            j = tour.positionOf(candidateSuccessor(tour.cityAt(position), random));
+        } else {
+            i = random.nextInt(n);
+            j = random.nextInt(n);
+        }
+        if (i > j) {
+            int tmp = i;
+            i = j;
+            j = tmp;
+        }
+        return delta(tour);
+    }
+
+    @Override
+    public long proposedHash(Tour tour) {
+        return tour.hashAfterSwap(i, j);
+    }
+
+    @Override
+    public void apply(Tour tour) {
+        touched(tour.cityBefore(i));
+        touched(tour.cityAt(i));
+        touched(tour.cityAfter(i));
+        touched(tour.cityBefore(j));
+        touched(tour.cityAt(j));
+        touched(tour.cityAfter(j));
+        tour.swap(i, j);
+    }
+
+    private int delta(Tour tour) {
+        int n = tour.size();
+        if (i == j || n < 3) {
+            return 0;
+        }
+
+        int a = tour.cityAt(i);
+        int b = tour.cityAt(j);
+
+        if (j == i + 1) {
+            // Sąsiednie pozycje: p -> a -> b -> q  zmienia się na  p -> b -> a -> q
+            int p = tour.cityBefore(i);
+            int q = tour.cityAfter(j);
+            return problem.getDistance(p, b) + problem.getDistance(b, a) + problem.getDistance(a, q)
+                    - problem.getDistance(p, a) - problem.getDistance(a, b) - problem.getDistance(b, q);
+        }
+
+        if (i == 0 && j == n - 1) {
+            // Sąsiedztwo przez "zawinięcie" trasy: p -> b -> a -> q  zmienia się na  p -> a -> b -> q
+            int p = tour.cityBefore(j);
+            int q = tour.cityAfter(i);
+            return problem.getDistance(p, a) + problem.getDistance(a, b) + problem.getDistance(b, q)
+                    - problem.getDistance(p, b) - problem.getDistance(b, a) - problem.getDistance(a, q);
+        }
+
+        int pa = tour.cityBefore(i);
+        int qa = tour.cityAfter(i);
+        int pb = tour.cityBefore(j);
+        int qb = tour.cityAfter(j);
+        return problem.getDistance(pa, b) + problem.getDistance(b, qa) + problem.getDistance(pb, a) + problem.getDistance(a, qb)
+                - problem.getDistance(pa, a) - problem.getDistance(a, qa) - problem.getDistance(pb, b) - problem.getDistance(b, qb);
+    }
+}
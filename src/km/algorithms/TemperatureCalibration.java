@@ -0,0 +1,73 @@
+package km.algorithms;
+
+import km.model.Tour;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Dobór temperatur na podstawie próbki zmian kosztu losowych ruchów na danej instancji.
+// Ruchy są tylko proponowane (trasa nie zmienia się), poza krótkim spadkiem zachłannym descend().
+public class TemperatureCalibration {
+    private static final int MAX_REFINEMENTS = 50;
+
+    private TemperatureCalibration() {
+    }
+
+    // Posortowane rosnąco pogorszenia (delta > 0) z samples proponowanych ruchów
+    public static int[] sampleUphillDeltas(Tour tour, AdaptiveOperatorSelector selector, RandomGenerator random, int samples) {
+        int[] uphill = new int[samples];
+        int count = 0;
+        for (int s = 0; s < samples; s++) {
+            NeighborhoodOperator operator = selector.getOperator(selector.select(random));
+            int delta = operator.propose(tour, random);
+            if (delta > 0) {
+                uphill[count++] = delta;
+            }
+        }
+        uphill = Arrays.copyOf(uphill, count);
+        Arrays.sort(uphill);
+        return uphill;
+    }
+
+    // Spadek zachłanny - próbka ma opisywać okolice dobrych tras, a nie trasy losowej
+    public static void descend(Tour tour, AdaptiveOperatorSelector selector, RandomGenerator random, long moves) {
+        for (long s = 0; s < moves; s++) {
+            NeighborhoodOperator operator = selector.getOperator(selector.select(random));
+            if (operator.propose(tour, random) <= 0) {
+                operator.apply(tour);
+            }
+        }
+    }
+
+    // Temperatura, w której pogorszenie delta przyjmowane jest z prawdopodobieństwem acceptance
+    public static double temperatureFor(int delta, double acceptance) {
+        return -delta / Math.log(acceptance);
+    }
+
+    // Temperatura, w której średnie prawdopodobieństwo przyjęcia pogorszeń z próbki wynosi acceptance.
+    // Iteracja Ben-Ameura: T <- T * (ln chi(T) / ln acceptance), startując od wzoru dla średniego pogorszenia.
+    public static double temperatureForAverage(int[] uphill, double acceptance) {
+        if (uphill.length == 0) {
+            return 1.0;
+        }
+        double mean = 0.0;
+        for (int delta : uphill) {
+            mean += delta;
+        }
+        mean /= uphill.length;
+        double temperature = -mean / Math.log(acceptance);
+
+        for (int i = 0; i < MAX_REFINEMENTS; i++) {
+            double chi = 0.0;
+            for (int delta : uphill) {
+                chi += Math.exp(-delta / temperature);
+            }
+            chi /= uphill.length;
+            if (Math.abs(chi - acceptance) < 1e-3 || chi <= 0.0) {
+                break;
+            }
+            temperature *= Math.log(chi) / Math.log(acceptance);
+        }
+        return temperature;
+    }
+}
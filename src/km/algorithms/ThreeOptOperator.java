@@ -0,0 +1,16 @@
+package km.algorithms;
+
+import km.model.TSPProblem;
+
+// Ruch 3-opt zachowujący orientację (zamiana kolejności dwóch sąsiednich segmentów) -
+// jedyny wariant 3-opt, który nie odwraca żadnego fragmentu trasy, więc pasuje do ATSP
+public class ThreeOptOperator extends SegmentMoveOperator {
+    public ThreeOptOperator(TSPProblem problem) {
+        super(problem, 1, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public String getName() {
+        return "threeOpt";
+    }
+}
@@ -0,0 +1,75 @@
+package km.algorithms;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Pamięć odwiedzonych tras jednej instancji, wspólna dla jej łańcuchów i kolejnych uruchomień:
+// odcisk trasy (TourHash) -> właściciel i iteracja ostatniej wizyty. Trafienie oznacza trasę znalezioną już
+// wcześniej przez dowolny łańcuch, a tabu dotyczy tylko wizyt własnych - właściciel to numer przebiegu
+// jednego łańcucha (newOwner()), więc znaczniki iteracji z różnych liczników nigdy nie są porównywane.
+// Tablica ma stały rozmiar (potęga dwójki) i działa bez blokad: wpis to trzy słowa, (odcisk XOR właściciel
+// XOR iteracja), właściciel i iteracja, więc wpis rozerwany przez równoległy zapis innego łańcucha nie przejdzie
+// sprawdzenia odcisku i zostanie potraktowany jak brak. Nowy wpis zawsze zastępuje poprzedni w swoim miejscu -
+// pamięć jest ograniczona, a dawno odwiedzone trasy wypadają same (także wizyty własne, wypierane przez
+// inne łańcuchy, dlatego przy wspólnej pamięci tabu nie jest w pełni powtarzalne).
+public class TourCache {
+    public static final long MISSING = -1; // Wynik age() dla trasy spoza pamięci
+    public static final long FOREIGN = Long.MAX_VALUE; // Wynik age() dla trasy odwiedzonej przez innego właściciela
+    private static final int SLOT_WORDS = 3;
+
+    private final AtomicLongArray slots; // [3 * i] - odcisk ^ właściciel ^ iteracja, [3 * i + 1] - właściciel, [3 * i + 2] - iteracja
+    private final int mask;
+    private final AtomicLong owners = new AtomicLong();
+
+    // entries - liczba wpisów (zaokrąglana w górę do potęgi dwójki), każdy zajmuje 24 bajty
+    public TourCache(int entries) {
+        if (entries < 1 || entries > 1 << 28) {
+            throw new IllegalArgumentException("Tour cache size out of range: " + entries);
+        }
+        int capacity = Integer.highestOneBit(entries);
+        if (capacity < entries) {
+            capacity <<= 1;
+        }
+        this.slots = new AtomicLongArray(SLOT_WORDS * capacity);
+        this.mask = capacity - 1;
+    }
+
+    // Nowy właściciel znaczników - po jednym na każde solve() każdego łańcucha
+    public long newOwner() {
+        return owners.incrementAndGet();
+    }
+
+    // Zapis wizyty właściciela w trasie o danym odcisku w iteracji iteration
+    public void put(long hash, long owner, long iteration) {
+        int slot = index(hash);
+        slots.setOpaque(slot, check(hash) ^ owner ^ iteration);
+        slots.setOpaque(slot + 1, owner);
+        slots.setOpaque(slot + 2, iteration);
+    }
+
+    // Liczba iteracji od ostatniej wizyty właściciela w trasie, FOREIGN dla trasy odwiedzonej przez innego
+    // właściciela, MISSING dla trasy spoza pamięci
+    public long age(long hash, long owner, long iteration) {
+        int slot = index(hash);
+        long visitor = slots.getOpaque(slot + 1);
+        long visited = slots.getOpaque(slot + 2);
+        if ((slots.getOpaque(slot) ^ visitor ^ visited) != check(hash)) {
+            return MISSING;
+        }
+        return visitor == owner ? iteration - visited : FOREIGN;
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    // Miejsce wyznaczają starsze bity odcisku, a najmłodszy bit sprawdzenia jest zawsze ustawiony,
+    // więc pusty wpis (same zera) nigdy nie pasuje do żadnego odcisku
+    private int index(long hash) {
+        return SLOT_WORDS * ((int) (hash >>> 32) & mask);
+    }
+
+    private static long check(long hash) {
+        return hash | 1;
+    }
+}
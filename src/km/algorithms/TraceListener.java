@@ -0,0 +1,12 @@
+package km.algorithms;
+
+// Odbiorca przebiegu zbieżności na bieżąco, w trakcie solve() - przerwane lub długie uruchomienie zostawia
+// przebieg do chwili przerwania. Wywoływany z wątków łańcuchów (także kilku naraz), więc musi być bezpieczny
+// wątkowo i szybki - zwykle tylko przekazuje wiersz do zapisu w tle.
+public interface TraceListener {
+    // Próbka okresowa; timeNano - czas od startu łańcucha
+    void sample(SolverMetrics metrics, long timeNano, long iterations, long accepted, long improving, long rejected, double temperature, int currentDistance, int bestDistance);
+
+    // Poprawa najlepszej trasy
+    void best(SolverMetrics metrics, long timeNano, int bestDistance);
+}
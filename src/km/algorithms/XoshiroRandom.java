@@ -0,0 +1,87 @@
+package km.algorithms;
+
+import java.util.random.RandomGenerator;
+
+// Generator xoshiro256++ (Blackman, Vigna): 256 bitów stanu, bez synchronizacji i bez alokacji.
+// Każdy wątek używa własnej instancji (split()). Stan jest jawny (getState/setState), dzięki czemu
+// uruchomienie z tym samym ziarnem jest powtarzalne, a generator można zapisać i odtworzyć.
+public final class XoshiroRandom implements RandomGenerator {
+    private long s0;
+    private long s1;
+    private long s2;
+    private long s3;
+
+    // Stan początkowy wyznaczany z ziarna generatorem SplitMix64 (zalecane przez autorów - stan nigdy nie jest zerowy)
+    public XoshiroRandom(long seed) {
+        reseed(seed);
+    }
+
+    public XoshiroRandom(long[] state) {
+        setState(state);
+    }
+
+    // Ponowne zasianie w miejscu - ten sam strumień co new XoshiroRandom(seed), bez tworzenia obiektu
+    public void reseed(long seed) {
+        long x = seed;
+        s0 = mix(x += 0x9E3779B97F4A7C15L);
+        s1 = mix(x += 0x9E3779B97F4A7C15L);
+        s2 = mix(x += 0x9E3779B97F4A7C15L);
+        s3 = mix(x + 0x9E3779B97F4A7C15L);
+    }
+
+    @Override
+    public long nextLong() {
+        long result = Long.rotateLeft(s0 + s3, 23) + s0;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return result;
+    }
+
+    // Losowanie z przedziału [0, bound) metodą mnożenia (Lemire) - bez dzielenia w typowym przypadku
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Bound must be positive: " + bound);
+        }
+        long product = (nextLong() >>> 32) * bound;
+        int low = (int) product;
+        if (Integer.compareUnsigned(low, bound) < 0) {
+            int threshold = Integer.remainderUnsigned(-bound, bound);
+            while (Integer.compareUnsigned(low, threshold) < 0) {
+                product = (nextLong() >>> 32) * bound;
+                low = (int) product;
+            }
+        }
+        return (int) (product >>> 32);
+    }
+
+    // Nowy, niezależny generator dla innego wątku (ziarno pobrane z bieżącego strumienia)
+    public XoshiroRandom split() {
+        return new XoshiroRandom(nextLong());
+    }
+
+    public long[] getState() {
+        return new long[]{s0, s1, s2, s3};
+    }
+
+    public void setState(long[] state) {
+        if (state.length != 4 || (state[0] | state[1] | state[2] | state[3]) == 0) {
+            throw new IllegalArgumentException("Invalid generator state");
+        }
+        s0 = state[0];
+        s1 = state[1];
+        s2 = state[2];
+        s3 = state[3];
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,289 @@
+package km.data;
+
+import km.model.CoordinateProblem;
+import km.model.TSPProblem;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+// Strumieniowy parser plików TSPLIB: macierz jawna (EDGE_WEIGHT_SECTION w formacie FULL_MATRIX)
+// albo współrzędne miast (NODE_COORD_SECTION dla EUC_2D, CEIL_2D, ATT i GEO).
+// Liczby parsowane są bezpośrednio z bajtów do macierzy - bez tworzenia obiektów String dla każdej wartości.
+public class ATSPParser {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8; // Największa tablica, jaką bezpiecznie przydziela JVM
+
+    private final InputStream input;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long bufferOffset; // Położenie początku bufora w pliku (do komunikatów o błędach)
+
+    private ATSPParser(InputStream input) {
+        this.input = input;
+    }
+
+    public static TSPProblem parse(String filePath) throws IOException {
+        try (InputStream input = new FileInputStream(filePath)) {
+            return new ATSPParser(input).parse();
+        }
+    }
+
+    // Sam nagłówek pliku - pozwala wybrać sposób wczytania bez czytania danych
+    public static Header readHeader(String filePath) throws IOException {
+        try (InputStream input = new FileInputStream(filePath)) {
+            return new ATSPParser(input).header();
+        }
+    }
+
+    // Przepisuje macierz jawną do kanału (int little-endian, wierszami, od bieżącej pozycji kanału) bez
+    // trzymania jej w pamięci - dla macierzy większych niż sterta. Zwraca wymiar macierzy.
+    public static int copyMatrix(String filePath, FileChannel channel) throws IOException {
+        try (InputStream input = new FileInputStream(filePath)) {
+            ATSPParser parser = new ATSPParser(input);
+            Header header = parser.header();
+            if (!header.isExplicit()) {
+                throw new IOException("Plik " + filePath + " nie zawiera macierzy odległości");
+            }
+            int dimension = header.getDimension();
+            ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            long count = 0;
+            long total = (long) dimension * dimension;
+            while (count < total && parser.skipWhitespace() && isNumberStart(parser.peek())) {
+                if (!out.hasRemaining()) {
+                    drain(out, channel);
+                }
+                out.putInt(parser.readInt());
+                count++;
+            }
+            drain(out, channel);
+            parser.checkMatrixEnd(dimension, count);
+            return dimension;
+        }
+    }
+
+    private TSPProblem parse() throws IOException {
+        Header header = header();
+        int dimension = header.getDimension();
+        if (!header.isExplicit()) {
+            return parseCoordinates(header);
+        }
+
+        long size = (long) dimension * dimension;
+        if (size > MAX_ARRAY_LENGTH) {
+            throw new IOException("Macierz " + dimension + "x" + dimension + " nie mieści się w tablicy - użyj matrixCache (macierz mapowana z pliku)");
+        }
+        int[] matrix = new int[(int) size];
+        int count = 0;
+        while (count < matrix.length && skipWhitespace() && isNumberStart(peek())) {
+            matrix[count++] = readInt();
+        }
+        checkMatrixEnd(dimension, count);
+
+        return new TSPProblem(matrix, dimension);
+    }
+
+    // Nagłówek jest krótki, więc czytany jest liniami aż do początku sekcji danych
+    private Header header() throws IOException {
+        int dimension = 0; // Liczba miast (wymiar macierzy)
+        String edgeWeightType = "EXPLICIT";
+        String edgeWeightFormat = "FULL_MATRIX";
+        String section = null;
+
+        String line;
+        while ((line = readLine()) != null) {
+            line = line.trim();
+            if (line.startsWith("DIMENSION")) {
+                dimension = Integer.parseInt(value(line));
+            } else if (line.startsWith("EDGE_WEIGHT_TYPE")) {
+                edgeWeightType = value(line);
+            } else if (line.startsWith("EDGE_WEIGHT_FORMAT")) {
+                edgeWeightFormat = value(line);
+            } else if (line.equals("EDGE_WEIGHT_SECTION") || line.equals("NODE_COORD_SECTION")) {
+                section = line;
+                break;
+            } else if (line.equals("EOF")) {
+                break;
+            }
+        }
+
+        boolean explicit = "EXPLICIT".equals(edgeWeightType);
+        if (dimension <= 0 || section == null || explicit != section.equals("EDGE_WEIGHT_SECTION")) {
+            throw new IOException("Nieprawidłowy format pliku");
+        }
+        if (explicit && !"FULL_MATRIX".equals(edgeWeightFormat)) {
+            throw new IOException("Nieobsługiwany format macierzy: " + edgeWeightFormat);
+        }
+        return new Header(dimension, edgeWeightType);
+    }
+
+    // Wiersze "numer x y" - numery miast od 1, w dowolnej kolejności
+    private TSPProblem parseCoordinates(Header header) throws IOException {
+        int dimension = header.getDimension();
+        double[] x = new double[dimension];
+        double[] y = new double[dimension];
+        boolean[] seen = new boolean[dimension];
+        for (int i = 0; i < dimension; i++) {
+            if (!skipWhitespace() || !isNumberStart(peek())) {
+                throw new IOException("Niekompletna sekcja NODE_COORD_SECTION, oczekiwano: " + dimension + ", ale wczytano " + i + " miast");
+            }
+            int city = readInt() - 1;
+            if (city < 0 || city >= dimension || seen[city]) {
+                throw new IOException("Nieprawidłowy numer miasta w NODE_COORD_SECTION: " + (city + 1));
+            }
+            seen[city] = true;
+            x[city] = readDouble();
+            y[city] = readDouble();
+        }
+        try {
+            return new CoordinateProblem(header.getEdgeWeightType(), x, y);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Nieobsługiwany typ odległości: " + header.getEdgeWeightType(), e);
+        }
+    }
+
+    private void checkMatrixEnd(int dimension, long count) throws IOException {
+        if (count < (long) dimension * dimension) {
+            throw new IOException("Niekompletna macierz, oczekiwano: " + dimension + "x" + dimension + ", ale wczytano " + count + " wartości");
+        }
+        if (skipWhitespace() && isNumberStart(peek())) {
+            throw new IOException("Za dużo wierszy w EDGE_WEIGHT_SECTION, oczekiwano: " + dimension);
+        }
+    }
+
+    private static String value(String line) {
+        return line.substring(line.indexOf(':') + 1).trim();
+    }
+
+    private static void drain(ByteBuffer out, FileChannel channel) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    // Czyta linię nagłówka (bez znaku końca linii); null na końcu pliku
+    private String readLine() throws IOException {
+        if (!fill()) {
+            return null;
+        }
+        StringBuilder line = new StringBuilder();
+        while (fill()) {
+            byte b = buffer[position++];
+            if (b == '\n') {
+                break;
+            }
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.toString();
+    }
+
+    // Przesuwa się do pierwszego znaku niebędącego białym znakiem; false na końcu pliku
+    private boolean skipWhitespace() throws IOException {
+        while (fill()) {
+            if (buffer[position] > ' ') {
+                return true;
+            }
+            position++;
+        }
+        return false;
+    }
+
+    // Liczba całkowita w zakresie int - przepełnienie i sam znak "-" są błędem formatu, a nie cichą wartością
+    private int readInt() throws IOException {
+        long start = bufferOffset + position;
+        boolean negative = false;
+        if (buffer[position] == '-') {
+            negative = true;
+            position++;
+        }
+        long limitValue = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long value = 0;
+        int digits = 0;
+        while (fill()) {
+            int digit = buffer[position] - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            value = value * 10 + digit;
+            if (value > limitValue) {
+                throw new IOException("Liczba poza zakresem int na pozycji " + start);
+            }
+            digits++;
+            position++;
+        }
+        if (digits == 0) {
+            throw new IOException("Oczekiwano liczby na pozycji " + start);
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    // Współrzędne mogą mieć część ułamkową i wykładnik (np. 1.5e+03) - jest ich tylko 2n, więc przez String
+    private double readDouble() throws IOException {
+        if (!skipWhitespace()) {
+            throw new IOException("Brak współrzędnej w NODE_COORD_SECTION");
+        }
+        StringBuilder token = new StringBuilder();
+        while (fill() && buffer[position] > ' ') {
+            token.append((char) buffer[position++]);
+        }
+        try {
+            return Double.parseDouble(token.toString());
+        } catch (NumberFormatException e) {
+            throw new IOException("Nieprawidłowa współrzędna: " + token, e);
+        }
+    }
+
+    private byte peek() {
+        return buffer[position];
+    }
+
+    private static boolean isNumberStart(byte b) {
+        return b == '-' || (b >= '0' && b <= '9');
+    }
+
+    // Doczytuje kolejny fragment pliku, gdy bufor się wyczerpał; false na końcu pliku
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        bufferOffset += limit;
+        limit = input.read(buffer, 0, BUFFER_SIZE);
+        position = 0;
+        if (limit <= 0) {
+            limit = 0;
+            return false;
+        }
+        return true;
+    }
+
+    public static class Header {
+        private final int dimension;
+        private final String edgeWeightType;
+
+        private Header(int dimension, String edgeWeightType) {
+            this.dimension = dimension;
+            this.edgeWeightType = edgeWeightType;
+        }
+
+        public int getDimension() {
+            return dimension;
+        }
+
+        public String getEdgeWeightType() {
+            return edgeWeightType;
+        }
+
+        // Macierz jawna (EDGE_WEIGHT_SECTION); w przeciwnym razie współrzędne miast
+        public boolean isExplicit() {
+            return "EXPLICIT".equals(edgeWeightType);
+        }
+    }
+}
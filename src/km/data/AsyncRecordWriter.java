@@ -0,0 +1,427 @@
+package km.data;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Asynchroniczny zapis rekordów: wątek solvera tylko wypełnia rekord z puli i wstawia go do ograniczonej kolejki,
+// a formatowanie i zapis na dysk wykonuje wątek w tle. Rekordy wracają do puli po zapisaniu, a liczby
+// formatowane są bezpośrednio do bufora bajtów - bez String.format, bez alokacji i niezależnie od ustawień
+// regionalnych (zawsze kropka dziesiętna).
+public class AsyncRecordWriter {
+    public enum Format {
+        CSV, // Wartości oddzielone ", " (jak dotychczasowe pliki wyników)
+        JSON_LINES, // Jeden obiekt JSON w linii, klucze z nazw kolumn
+        BINARY // Zwarty zapis binarny: liczba pól, a dla każdego pola znacznik typu i wartość
+    }
+
+    private static final int DEFAULT_CAPACITY = 1024; // Rozmiar puli rekordów (i kolejki)
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long FAILURE_CHECK_MS = 100; // Co ile oczekujący na wolny rekord sprawdza, czy wątek zapisujący żyje
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L};
+
+    private static final byte TYPE_MISSING = 0;
+    private static final byte TYPE_TEXT = 1;
+    private static final byte TYPE_INTEGER = 2;
+    private static final byte TYPE_DECIMAL = 3;
+
+    private final Format format;
+    private final String[] columns;
+    private final OutputStream output;
+    private final BlockingQueue<Record> pending;
+    private final BlockingQueue<Record> free;
+    private final Record poison = new Record();
+    private final Thread worker;
+
+    // Stan wątku zapisującego
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final byte[] digits = new byte[20];
+    private int position;
+    private volatile IOException failure;
+
+    // columns - nazwy kolumn: nagłówek CSV oraz klucze JSON (może być puste)
+    public AsyncRecordWriter(String filePath, Format format, String... columns) throws IOException {
+        this(filePath, format, DEFAULT_CAPACITY, columns);
+    }
+
+    public AsyncRecordWriter(String filePath, Format format, int capacity, String... columns) throws IOException {
+        this.format = format;
+        this.columns = columns;
+        this.output = new FileOutputStream(filePath);
+        this.pending = new ArrayBlockingQueue<>(capacity + 1);
+        this.free = new ArrayBlockingQueue<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            free.add(new Record());
+        }
+
+        if (format == Format.CSV && columns.length > 0) {
+            Record header = new Record();
+            for (String column : columns) {
+                header.text(column);
+            }
+            writeCsv(header);
+        }
+
+        worker = new Thread(this::drain, "record-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Pobiera pusty rekord z puli; blokuje, gdy wątek zapisujący nie nadąża (ograniczenie pamięci).
+    // Oczekiwanie przerywane jest co FAILURE_CHECK_MS, bo po błędzie wątku zapisującego rekordy,
+    // które w nim utknęły, nie wrócą już do puli.
+    public Record acquire() throws IOException {
+        try {
+            while (true) {
+                checkFailure();
+                if (!worker.isAlive() && free.isEmpty()) {
+                    throw new IOException("Wątek zapisujący zakończył pracę");
+                }
+                Record record = free.poll(FAILURE_CHECK_MS, TimeUnit.MILLISECONDS);
+                if (record != null) {
+                    record.clear();
+                    return record;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Przerwano oczekiwanie na wolny rekord");
+        }
+    }
+
+    public void submit(Record record) throws IOException {
+        checkFailure();
+        try {
+            pending.put(record);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Przerwano przekazywanie rekordu do zapisu");
+        }
+    }
+
+    // Czeka na zapisanie wszystkich rekordów i zamyka plik
+    public void close() throws IOException {
+        try {
+            pending.put(poison);
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Przerwano zamykanie pliku");
+        }
+        checkFailure();
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Pętla wątku zapisującego: opróżnia kolejkę partiami i zrzuca bufor, gdy kolejka jest pusta
+    private void drain() {
+        try {
+            while (true) {
+                Record record = pending.poll();
+                if (record == null) {
+                    flush();
+                    record = pending.take();
+                }
+                if (record == poison) {
+                    break;
+                }
+                if (failure == null) {
+                    write(record);
+                }
+                free.put(record);
+            }
+            flush();
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            failure = new InterruptedIOException("Przerwano wątek zapisujący");
+        } finally {
+            try {
+                output.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+    }
+
+    private void write(Record record) throws IOException {
+        try {
+            switch (format) {
+                case CSV:
+                    writeCsv(record);
+                    break;
+                case JSON_LINES:
+                    writeJson(record);
+                    break;
+                default:
+                    writeBinary(record);
+                    break;
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    private void writeCsv(Record record) throws IOException {
+        for (int i = 0; i < record.count; i++) {
+            if (i > 0) {
+                put((byte) ',');
+                put((byte) ' ');
+            }
+            switch (record.types[i]) {
+                case TYPE_TEXT:
+                    putText(record.texts[i], false);
+                    break;
+                case TYPE_INTEGER:
+                    putLong(record.integers[i]);
+                    break;
+                case TYPE_DECIMAL:
+                    putDecimal(record.decimals[i], record.precisions[i]);
+                    break;
+                default:
+                    put((byte) '-');
+                    break;
+            }
+        }
+        put((byte) '\n');
+    }
+
+    private void writeJson(Record record) throws IOException {
+        put((byte) '{');
+        for (int i = 0; i < record.count; i++) {
+            if (i > 0) {
+                put((byte) ',');
+            }
+            put((byte) '"');
+            if (i < columns.length) {
+                putText(columns[i], true);
+            } else {
+                putText("field", true);
+                putLong(i);
+            }
+            put((byte) '"');
+            put((byte) ':');
+            switch (record.types[i]) {
+                case TYPE_TEXT:
+                    put((byte) '"');
+                    putText(record.texts[i], true);
+                    put((byte) '"');
+                    break;
+                case TYPE_INTEGER:
+                    putLong(record.integers[i]);
+                    break;
+                case TYPE_DECIMAL:
+                    if (Double.isNaN(record.decimals[i]) || Double.isInfinite(record.decimals[i])) {
+                        putText("null", false);
+                    } else {
+                        putDecimal(record.decimals[i], record.precisions[i]);
+                    }
+                    break;
+                default:
+                    putText("null", false);
+                    break;
+            }
+        }
+        put((byte) '}');
+        put((byte) '\n');
+    }
+
+    private void writeBinary(Record record) throws IOException {
+        put((byte) record.count);
+        for (int i = 0; i < record.count; i++) {
+            put(record.types[i]);
+            switch (record.types[i]) {
+                case TYPE_TEXT:
+                    String text = record.texts[i];
+                    int length = Math.min(text.length(), 0xFFFF);
+                    put((byte) (length >>> 8));
+                    put((byte) length);
+                    for (int c = 0; c < length; c++) {
+                        char ch = text.charAt(c);
+                        put((byte) (ch >>> 8));
+                        put((byte) ch);
+                    }
+                    break;
+                case TYPE_INTEGER:
+                    putRawLong(record.integers[i]);
+                    break;
+                case TYPE_DECIMAL:
+                    putRawLong(Double.doubleToRawLongBits(record.decimals[i]));
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void put(byte b) throws IOException {
+        if (position == BUFFER_SIZE) {
+            flush();
+        }
+        buffer[position++] = b;
+    }
+
+    private void putRawLong(long value) throws IOException {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            put((byte) (value >>> shift));
+        }
+    }
+
+    // Tekst w UTF-8, opcjonalnie z sekwencjami ucieczki JSON
+    private void putText(String text, boolean escape) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (escape && (c == '"' || c == '\\')) {
+                put((byte) '\\');
+                put((byte) c);
+            } else if (escape && c < 0x20) {
+                put((byte) '\\');
+                put((byte) 'u');
+                put((byte) '0');
+                put((byte) '0');
+                put((byte) Character.forDigit(c >> 4, 16));
+                put((byte) Character.forDigit(c & 0xF, 16));
+            } else if (c < 0x80) {
+                put((byte) c);
+            } else if (c < 0x800) {
+                put((byte) (0xC0 | (c >> 6)));
+                put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                put((byte) (0xF0 | (codePoint >> 18)));
+                put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                put((byte) (0x80 | (codePoint & 0x3F)));
+            } else {
+                put((byte) (0xE0 | (c >> 12)));
+                put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private void putLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            putText(Long.toString(value), false);
+            return;
+        }
+        if (value < 0) {
+            put((byte) '-');
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        while (count > 0) {
+            put(digits[--count]);
+        }
+    }
+
+    // Zapis stałoprzecinkowy z precision cyframi po kropce (zaokrąglenie połówkowe)
+    private void putDecimal(double value, int precision) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= 1e18 / POWERS_OF_TEN[precision]) {
+            putText(Double.toString(value), false); // Wartości spoza zakresu long - rzadki przypadek
+            return;
+        }
+        long scale = POWERS_OF_TEN[precision];
+        long scaled = Math.round(Math.abs(value) * scale);
+        if (value < 0 && scaled != 0) {
+            put((byte) '-');
+        }
+        putLong(scaled / scale);
+        if (precision > 0) {
+            put((byte) '.');
+            long fraction = scaled % scale;
+            for (long divisor = scale / 10; divisor > 0; divisor /= 10) {
+                put((byte) ('0' + (fraction / divisor) % 10));
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        if (position > 0) {
+            output.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    // Rekord wielokrotnego użytku: kolejne pola dopisywane metodami text/integer/decimal/missing
+    public static final class Record {
+        private static final int INITIAL_FIELDS = 16;
+
+        private byte[] types = new byte[INITIAL_FIELDS];
+        private String[] texts = new String[INITIAL_FIELDS];
+        private long[] integers = new long[INITIAL_FIELDS];
+        private double[] decimals = new double[INITIAL_FIELDS];
+        private int[] precisions = new int[INITIAL_FIELDS];
+        private int count;
+
+        private Record() {
+        }
+
+        public Record text(String value) {
+            int i = next(TYPE_TEXT);
+            texts[i] = value;
+            return this;
+        }
+
+        public Record integer(long value) {
+            integers[next(TYPE_INTEGER)] = value;
+            return this;
+        }
+
+        // precision - liczba cyfr po kropce (0-9)
+        public Record decimal(double value, int precision) {
+            if (precision < 0 || precision >= POWERS_OF_TEN.length) {
+                throw new IllegalArgumentException("Unsupported precision: " + precision);
+            }
+            int i = next(TYPE_DECIMAL);
+            decimals[i] = value;
+            precisions[i] = precision;
+            return this;
+        }
+
+        // Brak wartości: "-" w CSV, null w JSON
+        public Record missing() {
+            next(TYPE_MISSING);
+            return this;
+        }
+
+        private int next(byte type) {
+            if (count == types.length) {
+                int capacity = count * 2;
+                types = Arrays.copyOf(types, capacity);
+                texts = Arrays.copyOf(texts, capacity);
+                integers = Arrays.copyOf(integers, capacity);
+                decimals = Arrays.copyOf(decimals, capacity);
+                precisions = Arrays.copyOf(precisions, capacity);
+            }
+            types[count] = type;
+            return count++;
+        }
+
+        private void clear() {
+            for (int i = 0; i < count; i++) {
+                texts[i] = null;
+            }
+            count = 0;
+        }
+    }
+}
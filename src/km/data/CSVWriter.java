@@ -1,10 +1,10 @@
 package km.data;
 
-import java.io.FileWriter;
 import java.io.IOException;
 
+// Plik wyników zapisywany asynchronicznie (AsyncRecordWriter) - zapis nie blokuje kolejnych uruchomień
 public class CSVWriter {
-    private FileWriter writer;
+    private AsyncRecordWriter writer;
 
     public CSVWriter() {
         this.writer = null;
@@ -15,34 +15,61 @@ public class CSVWriter {
         if (writer != null) {
             writer.close();
         }
-        writer = new FileWriter(filePath);
+        writer = new AsyncRecordWriter(filePath, AsyncRecordWriter.Format.CSV);
     }
 
     // Dodanie nagłówka do pliku CSV
     public void writeRecordHeader(String... headers) throws IOException {
-        for (int i = 0; i < headers.length; i++) {
-            writer.write(headers[i]);
-            if (i < headers.length - 1) {
-                writer.write(", ");
-            }
+        AsyncRecordWriter.Record record = writer.acquire();
+        for (String header : headers) {
+            record.text(header);
         }
-        writer.write("\n");
+        writer.submit(record);
     }
 
     // Zapisuje wiersz z wynikami
     public void writeRecord(String file, int run, int bestDistance, double relativeError, long executionTimeNs, long executionTimeMs, String bestPath) throws IOException {
-        writer.write(String.format("%s, %d, %d, %.2f, %d, %d, %s\n", file, run, bestDistance, relativeError, executionTimeNs, executionTimeMs, bestPath));
+        writeRecord(file, run, bestDistance, relativeError, executionTimeNs, executionTimeMs, bestPath, Double.NaN);
     }
 
-    // Zapisuje średnie wartości dla pliku
+    // Zapisuje wiersz z wynikami i luką do dolnej granicy w ostatniej kolumnie (NaN - brak wartości, np. zerowa granica).
+    // Kolumny bez wartości zapisywane są jako "-", więc każdy wiersz ma tyle kolumn co nagłówek.
+    public void writeRecord(String file, int run, int bestDistance, double relativeError, long executionTimeNs, long executionTimeMs, String bestPath, double lowerBoundGap) throws IOException {
+        AsyncRecordWriter.Record record = writer.acquire()
+                .text(file)
+                .integer(run)
+                .integer(bestDistance);
+        percent(record, relativeError)
+                .integer(executionTimeNs)
+                .integer(executionTimeMs)
+                .text(bestPath);
+        percent(record.missing().missing(), lowerBoundGap);
+        writer.submit(record);
+    }
+
+    // Zapisuje średnie wartości dla pliku w kolumnach "Sredni ..." nagłówka
     public void writeAverageRecord(String file, double averageRelativeError, double averageExecutionTimeNs, double averageExecutionTimeMs) throws IOException {
-        writer.write(String.format("%s, -, -, -, %.2f, %.2f, -, -, -, -\n", file, averageRelativeError, averageExecutionTimeNs, averageExecutionTimeMs));
+        writeAverageRecord(file, averageRelativeError, averageExecutionTimeNs, averageExecutionTimeMs, Double.NaN);
+    }
+
+    public void writeAverageRecord(String file, double averageRelativeError, double averageExecutionTimeNs, double averageExecutionTimeMs, double averageLowerBoundGap) throws IOException {
+        AsyncRecordWriter.Record record = writer.acquire()
+                .text(file)
+                .missing().missing().missing().missing().missing();
+        percent(record, averageRelativeError)
+                .decimal(averageExecutionTimeNs, 2)
+                .decimal(averageExecutionTimeMs, 2);
+        percent(record, averageLowerBoundGap);
+        writer.submit(record);
+    }
+
+    private static AsyncRecordWriter.Record percent(AsyncRecordWriter.Record record, double value) {
+        return Double.isNaN(value) ? record.missing() : record.decimal(value, 2);
     }
 
-    // Zamknięcie strumienia
+    // Zamknięcie strumienia - czeka na zapisanie wszystkich wierszy
     public void close() throws IOException {
         if (writer != null) {
-            writer.flush();
             writer.close();
         }
     }
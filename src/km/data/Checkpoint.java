@@ -0,0 +1,130 @@
+package km.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+// Binarny punkt kontrolny wyżarzania: bieżąca i najlepsza trasa, temperatura, numer iteracji, stan generatora
+// liczb losowych i stan wyboru operatorów. Wznowienie z punktu kontrolnego kontynuuje przebieg dokładnie tak,
+// jakby proces nie został przerwany (przy wyłączonych bitach "nie patrz", które nie są zapisywane).
+// Przebiegu z automatycznym strojeniem nie da się wznowić - kalibracja zależy od zmierzonej przepustowości
+// i budżetu całego uruchomienia, więc solver odrzuca takie wznowienie.
+// Zapisywany jest też opis ustawień solvera, z którymi powstał punkt - wznowienie z innymi ustawieniami
+// dałoby przebieg będący mieszanką dwóch konfiguracji, więc solver je odrzuca.
+public class Checkpoint {
+    private static final int MAGIC = 0x50454143; // "PEAC"
+    private static final int VERSION = 2;
+    // magic, wersja, wymiar, iteracja, temperatura, generator, długość stanu operatorów, długość opisu ustawień
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 8 + 8 + 4 * 8 + 4 + 4;
+
+    private final int[] currentTour;
+    private final int[] bestTour;
+    private final double temperature;
+    private final long iteration; // Numer następnej iteracji (od niego zależy chłodzenie logarytmiczne)
+    private final long[] randomState;
+    private final double[] operatorState;
+    private final String configuration; // Ustawienia solvera, z którymi zapisano punkt
+
+    public Checkpoint(int[] currentTour, int[] bestTour, double temperature, long iteration, long[] randomState, double[] operatorState, String configuration) {
+        if (currentTour.length != bestTour.length || randomState.length != 4) {
+            throw new IllegalArgumentException("Inconsistent checkpoint state");
+        }
+        this.currentTour = currentTour;
+        this.bestTour = bestTour;
+        this.temperature = temperature;
+        this.iteration = iteration;
+        this.randomState = randomState;
+        this.operatorState = operatorState;
+        this.configuration = configuration;
+    }
+
+    public int[] getCurrentTour() {
+        return currentTour;
+    }
+
+    public int[] getBestTour() {
+        return bestTour;
+    }
+
+    public double getTemperature() {
+        return temperature;
+    }
+
+    public long getIteration() {
+        return iteration;
+    }
+
+    public long[] getRandomState() {
+        return randomState;
+    }
+
+    public double[] getOperatorState() {
+        return operatorState;
+    }
+
+    public String getConfiguration() {
+        return configuration;
+    }
+
+    public static Checkpoint read(String filePath) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(Paths.get(filePath))).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Not a checkpoint file: " + filePath);
+        }
+        int dimension = buffer.getInt();
+        long iteration = buffer.getLong();
+        double temperature = buffer.getDouble();
+        long[] randomState = new long[4];
+        for (int i = 0; i < randomState.length; i++) {
+            randomState[i] = buffer.getLong();
+        }
+        int operatorStateLength = buffer.getInt();
+        int configurationLength = buffer.getInt();
+        if (dimension <= 0 || operatorStateLength < 0 || configurationLength < 0
+                || buffer.remaining() != configurationLength + operatorStateLength * 8L + dimension * 8L) {
+            throw new IOException("Truncated checkpoint file: " + filePath);
+        }
+        byte[] configuration = new byte[configurationLength];
+        buffer.get(configuration);
+        double[] operatorState = new double[operatorStateLength];
+        buffer.asDoubleBuffer().get(operatorState);
+        buffer.position(buffer.position() + operatorStateLength * 8);
+        int[] currentTour = new int[dimension];
+        int[] bestTour = new int[dimension];
+        buffer.asIntBuffer().get(currentTour).get(bestTour);
+        return new Checkpoint(currentTour, bestTour, temperature, iteration, randomState, operatorState, new String(configuration, StandardCharsets.UTF_8));
+    }
+
+    // Zapis do pliku tymczasowego i atomowa zamiana - przerwanie w trakcie zapisu nie niszczy poprzedniego punktu
+    public void write(String filePath) throws IOException {
+        int dimension = currentTour.length;
+        byte[] configurationBytes = configuration.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + configurationBytes.length + operatorState.length * 8 + dimension * 8).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(dimension).putLong(iteration).putDouble(temperature);
+        for (long word : randomState) {
+            buffer.putLong(word);
+        }
+        buffer.putInt(operatorState.length);
+        buffer.putInt(configurationBytes.length);
+        buffer.put(configurationBytes);
+        for (double value : operatorState) {
+            buffer.putDouble(value);
+        }
+        for (int city : currentTour) {
+            buffer.putInt(city);
+        }
+        for (int city : bestTour) {
+            buffer.putInt(city);
+        }
+
+        Path target = Paths.get(filePath).toAbsolutePath();
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        Files.write(temporary, buffer.array());
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -18,6 +18,10 @@ public class ConfigLoader {
         return properties.getProperty(key);
     }
 
+    public String getProperty(String key, String defaultValue) {
+        return properties.getProperty(key, defaultValue);
+    }
+
     public int getIntProperty(String key) {
         String value = properties.getProperty(key);
         if (value == null) {
@@ -26,6 +30,14 @@ public class ConfigLoader {
         return Integer.parseInt(value.trim());
     }
 
+    public int getIntProperty(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        return Integer.parseInt(value.trim());
+    }
+
     public double getDoubleProperty(String key) {
         String value = properties.getProperty(key);
         if (value == null) {
@@ -34,6 +46,14 @@ public class ConfigLoader {
         return Double.parseDouble(value.trim());
     }
 
+    public double getDoubleProperty(String key, double defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        return Double.parseDouble(value.trim());
+    }
+
     public boolean getBooleanProperty(String key) {
         String value = properties.getProperty(key);
         if (value == null) {
@@ -41,4 +61,12 @@ public class ConfigLoader {
         }
         return Boolean.parseBoolean(value.trim().toLowerCase());
     }
+
+    public boolean getBooleanProperty(String key, boolean defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value.trim().toLowerCase());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package km.data;
+
+import km.model.MappedMatrixProblem;
+import km.model.TSPProblem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Binarna kopia macierzy odległości zapisywana obok pliku źródłowego (<plik>.bin).
+// Kolejne wczytania mapują ją do pamięci przez NIO zamiast parsować tekst. Kopia jest unieważniana,
+// gdy zmieni się rozmiar lub czas modyfikacji pliku źródłowego. Macierze od MAPPED_MIN_CITIES miast
+// nie są kopiowane na stertę - solver czyta je wprost z mapowanego pliku (MappedMatrixProblem), a przy
+// tworzeniu kopii wartości przepisywane są z pliku tekstowego strumieniowo. Instancje zadane
+// współrzędnymi nie mają macierzy, więc nie są kopiowane.
+public class MatrixCache {
+    public static final int MAPPED_MIN_CITIES = 8192; // Od tego wymiaru macierz int zajmuje ponad 256 MB
+
+    private static final int MAGIC = 0x50454133; // "PEA3"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4; // magic, wersja, rozmiar źródła, mtime źródła, wymiar
+    private static final String SUFFIX = ".bin";
+
+    public static TSPProblem load(String filePath) throws IOException {
+        Path source = Paths.get(filePath);
+        Path cache = Paths.get(filePath + SUFFIX);
+        long sourceSize = Files.size(source);
+        long sourceModified = Files.getLastModifiedTime(source).toMillis();
+
+        TSPProblem problem = read(cache, sourceSize, sourceModified);
+        if (problem == null) {
+            ATSPParser.Header header = ATSPParser.readHeader(filePath);
+            if (!header.isExplicit()) {
+                return ATSPParser.parse(filePath);
+            }
+            if (header.getDimension() >= MAPPED_MIN_CITIES) {
+                try {
+                    writeStreaming(cache, filePath, sourceSize, sourceModified);
+                    problem = read(cache, sourceSize, sourceModified);
+                } catch (IOException e) {
+                    // Kopia jest tylko przyspieszeniem (np. katalog tylko do odczytu, brak miejsca) - zwykłe parsowanie
+                    System.err.println("Nie udało się zapisać kopii binarnej " + cache + ": " + e.getMessage());
+                }
+                return problem != null ? problem : ATSPParser.parse(filePath);
+            }
+            problem = ATSPParser.parse(filePath);
+            try {
+                write(cache, problem, sourceSize, sourceModified);
+            } catch (IOException e) {
+                // Brak kopii nie przeszkadza w obliczeniach - kolejne wczytanie ponownie sparsuje plik
+                System.err.println("Nie udało się zapisać kopii binarnej " + cache + ": " + e.getMessage());
+            }
+        }
+        return problem;
+    }
+
+    // Zwraca null, jeśli kopii nie ma lub jest nieaktualna
+    private static TSPProblem read(Path cache, long sourceSize, long sourceModified) throws IOException {
+        if (!Files.isRegularFile(cache) || Files.size(cache) < HEADER_SIZE) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (header.getInt() != MAGIC || header.getInt() != VERSION
+                    || header.getLong() != sourceSize || header.getLong() != sourceModified) {
+                return null;
+            }
+            int dimension = header.getInt();
+            if (dimension <= 0 || channel.size() - HEADER_SIZE != (long) dimension * dimension * 4) {
+                return null;
+            }
+            if (dimension >= MAPPED_MIN_CITIES) {
+                return new MappedMatrixProblem(cache, HEADER_SIZE, dimension);
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, channel.size() - HEADER_SIZE);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            int[] matrix = new int[dimension * dimension];
+            buffer.asIntBuffer().get(matrix);
+            return new TSPProblem(matrix, dimension);
+        }
+    }
+
+    // Kopia dużej macierzy przepisywana strumieniowo z pliku tekstowego - bez macierzy na stercie
+    private static void writeStreaming(Path cache, String filePath, long sourceSize, long sourceModified) throws IOException {
+        Path directory = cache.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, cache.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.position(HEADER_SIZE);
+                int dimension = ATSPParser.copyMatrix(filePath, channel);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putLong(sourceSize).putLong(sourceModified).putInt(dimension);
+                header.flip();
+                channel.write(header, 0);
+            }
+            Files.move(temporary, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    // Zapis do pliku tymczasowego i atomowa zamiana, aby równoległe procesy nie czytały niepełnej kopii
+    private static void write(Path cache, TSPProblem problem, long sourceSize, long sourceModified) throws IOException {
+        int dimension = problem.getCitiesCount();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + dimension * dimension * 4).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(sourceSize).putLong(sourceModified).putInt(dimension);
+        for (int i = 0; i < dimension; i++) {
+            for (int j = 0; j < dimension; j++) {
+                buffer.putInt(problem.getDistance(i, j));
+            }
+        }
+        buffer.flip();
+
+        Path directory = cache.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, cache.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(temporary, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary); // Niepełna kopia po błędzie zapisu
+        }
+    }
+}
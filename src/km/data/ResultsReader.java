@@ -0,0 +1,82 @@
+package km.data;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// Odczyt najlepszej trasy z wcześniejszego pliku wyników (wiersz z numerem uruchomienia -1,
+// zapisywany po ostatnim uruchomieniu serii) - punkt startowy dla kolejnej sesji obliczeń
+public class ResultsReader {
+    private static final String SEPARATOR = ", ";
+
+    // Najkrótsza z tras zapisanych dla pliku instancji (również w wierszach z opisem parametrów "plik [..]")
+    public static int[] readBestPath(String resultsFilePath, String file) throws IOException {
+        int[] bestPath = null;
+        int bestDistance = Integer.MAX_VALUE;
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(resultsFilePath), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = summaryFields(line, file);
+                if (fields == null) {
+                    continue;
+                }
+                int distance = Integer.parseInt(fields[2].trim());
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    bestPath = pathOf(line);
+                }
+            }
+        }
+        if (bestPath == null) {
+            throw new IllegalArgumentException("No best path for " + file + " in " + resultsFilePath);
+        }
+        return bestPath;
+    }
+
+    // Wszystkie trasy zapisane dla pliku instancji, w kolejności wierszy - do ponownej oceny (TourEvaluator.evaluateAll)
+    public static List<int[]> readPaths(String resultsFilePath, String file) throws IOException {
+        List<int[]> paths = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(resultsFilePath), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (summaryFields(line, file) != null) {
+                    paths.add(pathOf(line));
+                }
+            }
+        }
+        return paths;
+    }
+
+    // Pola wiersza podsumowania z trasą dla danego pliku lub null, gdy wiersz go nie dotyczy
+    private static String[] summaryFields(String line, String file) {
+        // plik, uruchomienie, odległość, ... - opis parametrów w nazwie nie zawiera przecinków
+        String[] fields = line.split(SEPARATOR, 4);
+        if (fields.length < 4 || !fields[1].equals("-1") || !(fields[0].equals(file) || fields[0].startsWith(file + " ["))) {
+            return null;
+        }
+        // Trasa jest ostatnim fragmentem [..] wiersza (nazwa z parametrami też zawiera nawiasy)
+        int pathStart = line.lastIndexOf('[');
+        int pathEnd = line.lastIndexOf(']');
+        if (pathStart < fields[0].length() || pathEnd < pathStart) {
+            return null;
+        }
+        return fields;
+    }
+
+    private static int[] pathOf(String line) {
+        return parsePath(line.substring(line.lastIndexOf('[') + 1, line.lastIndexOf(']')));
+    }
+
+    private static int[] parsePath(String path) {
+        String[] cities = path.split(",");
+        int[] result = new int[cities.length];
+        for (int i = 0; i < cities.length; i++) {
+            result[i] = Integer.parseInt(cities[i].trim());
+        }
+        return result;
+    }
+}
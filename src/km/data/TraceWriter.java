@@ -0,0 +1,140 @@
+package km.data;
+
+import km.algorithms.SolverMetrics;
+import km.algorithms.TraceListener;
+
+import java.io.IOException;
+import java.util.List;
+
+// Zapis przebiegu zbieżności do pliku obok pliku wyników. Dla każdego łańcucha zapisywane są
+// próbki okresowe (sample) i kolejne poprawy najlepszej trasy (best) - na bieżąco, przez listener() -
+// oraz podsumowanie (summary) po zakończeniu uruchomienia.
+// Format pliku (csv, jsonl, binary) wybierany jest kluczem traceFormat w konfiguracji.
+public class TraceWriter {
+    private static final int TEMPERATURE_PRECISION = 6; // Zapis stałoprzecinkowy - bez tworzenia obiektów String dla wiersza
+    private static final String[] COLUMNS = {"Plik", "Uruchomienie", "Lancuch", "Typ", "Czas (ms)", "Iteracje", "Zaakceptowane", "Poprawiajace", "Odrzucone", "Temperatura", "Biezaca odleglosc", "Najlepsza odleglosc", "Czas rozwiazania poczatkowego (ms)", "Czas przeszukiwania (ms)"};
+
+    private final AsyncRecordWriter writer;
+
+    public TraceWriter(String filePath) throws IOException {
+        this(filePath, AsyncRecordWriter.Format.CSV);
+    }
+
+    public TraceWriter(String filePath, AsyncRecordWriter.Format format) throws IOException {
+        writer = new AsyncRecordWriter(filePath, format, COLUMNS);
+    }
+
+    public static AsyncRecordWriter.Format parseFormat(String name) {
+        switch (name) {
+            case "csv":
+                return AsyncRecordWriter.Format.CSV;
+            case "jsonl":
+                return AsyncRecordWriter.Format.JSON_LINES;
+            case "binary":
+                return AsyncRecordWriter.Format.BINARY;
+            default:
+                throw new IllegalArgumentException("Unknown trace format: " + name);
+        }
+    }
+
+    // Nazwa pliku przebiegu tworzona z nazwy pliku wyników: results.csv -> results_trace.csv
+    public static String traceFilePath(String outputFilePath) {
+        int dot = outputFilePath.lastIndexOf('.');
+        return dot < 0 ? outputFilePath + "_trace" : outputFilePath.substring(0, dot) + "_trace" + outputFilePath.substring(dot);
+    }
+
+    // Rozszerzenie pliku zgodne z formatem: results.csv -> results_trace.jsonl
+    public static String traceFilePath(String outputFilePath, AsyncRecordWriter.Format format) {
+        if (format == AsyncRecordWriter.Format.CSV) {
+            return traceFilePath(outputFilePath);
+        }
+        int dot = outputFilePath.lastIndexOf('.');
+        String base = dot < 0 ? outputFilePath : outputFilePath.substring(0, dot);
+        return base + (format == AsyncRecordWriter.Format.JSON_LINES ? "_trace.jsonl" : "_trace.bin");
+    }
+
+    // Odbiorca próbek i popraw jednego uruchomienia - wiersze trafiają do pliku w trakcie solve()
+    public TraceListener listener(String file, int run) {
+        return new Listener(file, run);
+    }
+
+    // Podsumowanie każdego łańcucha, zapisywane po zakończeniu solve()
+    public void writeSummary(String file, int run, List<SolverMetrics> metricsList) throws IOException {
+        for (SolverMetrics metrics : metricsList) {
+            // W podsumowaniu czas oznacza czas do znalezienia najlepszej trasy
+            writer.submit(prefix(file, run, metrics.getName(), "summary")
+                    .decimal(millis(metrics.getTimeToBestNano()), 3)
+                    .integer(metrics.getIterations())
+                    .integer(metrics.getAccepted())
+                    .integer(metrics.getImproving())
+                    .integer(metrics.getRejected())
+                    .decimal(metrics.getTemperature(), TEMPERATURE_PRECISION)
+                    .missing()
+                    .integer(metrics.getBestDistance())
+                    .decimal(millis(metrics.getInitialSolutionTimeNano()), 3)
+                    .decimal(millis(metrics.getSearchTimeNano()), 3));
+        }
+    }
+
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private AsyncRecordWriter.Record prefix(String file, int run, String chain, String type) throws IOException {
+        return writer.acquire().text(file).integer(run).text(chain).text(type);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    // Wywoływany z wątków łańcuchów. Błąd zapisu nie przerywa obliczeń - dalsze wiersze są pomijane,
+    // a sam błąd zgłasza writeSummary() lub close() (wątek zapisujący pamięta pierwszy błąd)
+    private class Listener implements TraceListener {
+        private final String file;
+        private final int run;
+        private volatile boolean failed;
+
+        private Listener(String file, int run) {
+            this.file = file;
+            this.run = run;
+        }
+
+        @Override
+        public void sample(SolverMetrics metrics, long timeNano, long iterations, long accepted, long improving, long rejected, double temperature, int currentDistance, int bestDistance) {
+            if (failed) {
+                return;
+            }
+            try {
+                writer.submit(prefix(file, run, metrics.getName(), "sample")
+                        .decimal(millis(timeNano), 3)
+                        .integer(iterations)
+                        .integer(accepted)
+                        .integer(improving)
+                        .integer(rejected)
+                        .decimal(temperature, TEMPERATURE_PRECISION)
+                        .integer(currentDistance)
+                        .integer(bestDistance)
+                        .missing().missing());
+            } catch (IOException e) {
+                failed = true;
+            }
+        }
+
+        @Override
+        public void best(SolverMetrics metrics, long timeNano, int bestDistance) {
+            if (failed) {
+                return;
+            }
+            try {
+                writer.submit(prefix(file, run, metrics.getName(), "best")
+                        .decimal(millis(timeNano), 3)
+                        .missing().missing().missing().missing().missing().missing()
+                        .integer(bestDistance)
+                        .missing().missing());
+            } catch (IOException e) {
+                failed = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package km.experiment;
+
+import km.data.ConfigLoader;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Deklaratywny plan eksperymentu: instancje (plik, optimum, limit czasu), siatka parametrów wyżarzania
+// i liczba uruchomień. Plan czytany jest z pliku konfiguracyjnego (klucze experiment.*), a brakujące
+// klucze przyjmują wartości dotychczasowego trybu standardowego. Ziarno planu wyznacza ziarna wszystkich
+// uruchomień, więc cały eksperyment można powtórzyć z tym samym ziarnem.
+public class ExperimentPlan {
+    // plik:optimum:czas w sekundach ("-" zamiast optimum, gdy nie jest znane - jakość mierzy wtedy luka do dolnej granicy)
+    public static final String DEFAULT_INSTANCES = "ftv47.atsp:1776:60,ftv170.atsp:2755:120,rbg403.atsp:2465:180";
+    public static final int DEFAULT_RUNS = 10;
+
+    private final List<Instance> instances;
+    private final List<Parameters> parameterSets;
+    private final int runs;
+    private final long seed;
+
+    public ExperimentPlan(List<Instance> instances, List<Parameters> parameterSets, int runs, long seed) {
+        if (instances.isEmpty() || parameterSets.isEmpty() || runs < 1) {
+            throw new IllegalArgumentException("Experiment plan needs at least one instance, parameter set and run");
+        }
+        this.instances = List.copyOf(instances);
+        this.parameterSets = List.copyOf(parameterSets);
+        this.runs = runs;
+        this.seed = seed;
+    }
+
+    // Wartości siatki podawane są po przecinku, np. experiment.coolingRate=0.99,0.995,0.999.
+    // Domyślnie siatka ma jeden punkt - wartość klucza bez przedrostka (coolingRate itd.).
+    public static ExperimentPlan fromConfig(ConfigLoader configLoader) {
+        List<Instance> instances = new ArrayList<>();
+        for (String entry : split(configLoader.getProperty("experiment.instances", DEFAULT_INSTANCES))) {
+            String[] parts = entry.split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Unknown instance format (expected file:optimum:seconds): " + entry);
+            }
+            String optimum = parts[1].trim();
+            int optimalSolution = optimum.isEmpty() || optimum.equals("-") ? Instance.UNKNOWN_OPTIMUM : Integer.parseInt(optimum);
+            instances.add(new Instance(parts[0].trim(), optimalSolution, Integer.parseInt(parts[2].trim())));
+        }
+
+        List<Parameters> parameterSets = new ArrayList<>();
+        for (String coolingMethod : grid(configLoader, "coolingMethod")) {
+            for (String initialSolutionMethod : grid(configLoader, "initialSolutionMethod")) {
+                for (String initialTemperature : grid(configLoader, "initialTemperature")) {
+                    for (String coolingRate : grid(configLoader, "coolingRate")) {
+                        parameterSets.add(new Parameters(Double.parseDouble(coolingRate), Double.parseDouble(initialTemperature), coolingMethod, initialSolutionMethod));
+                    }
+                }
+            }
+        }
+
+        // Ziarno z experiment.seed lub seed, bez nich losowe
+        String seed = configLoader.getProperty("experiment.seed", configLoader.getProperty("seed"));
+        return new ExperimentPlan(instances, parameterSets, configLoader.getIntProperty("experiment.runs", DEFAULT_RUNS),
+                seed == null ? new SplittableRandom().nextLong() : Long.parseLong(seed.trim()));
+    }
+
+    // Wszystkie uruchomienia planu, najdłuższe najpierw - krótsze wypełniają później wolne wątki.
+    // Ziarna przydzielane są przed sortowaniem, w kolejności planu, więc nie zależą od kolejności wykonania.
+    public List<Task> tasks() {
+        List<Task> tasks = new ArrayList<>();
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (Instance instance : instances) {
+            for (Parameters parameters : parameterSets) {
+                for (int run = 1; run <= runs; run++) {
+                    tasks.add(new Task(instance, parameters, run, seeds.nextLong()));
+                }
+            }
+        }
+        tasks.sort(Comparator.comparingInt((Task task) -> task.getInstance().getTimeLimit()).reversed());
+        return tasks;
+    }
+
+    public List<Instance> getInstances() {
+        return instances;
+    }
+
+    public List<Parameters> getParameterSets() {
+        return parameterSets;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    private static List<String> grid(ConfigLoader configLoader, String key) {
+        String values = configLoader.getProperty("experiment." + key, configLoader.getProperty(key));
+        if (values == null) {
+            throw new IllegalArgumentException("Property " + key + " is not found.");
+        }
+        return split(values);
+    }
+
+    private static List<String> split(String values) {
+        List<String> result = new ArrayList<>();
+        for (String value : values.split(",")) {
+            if (!value.isBlank()) {
+                result.add(value.trim());
+            }
+        }
+        return result;
+    }
+
+    public static class Instance {
+        public static final int UNKNOWN_OPTIMUM = -1;
+
+        private final String file;
+        private final int optimalSolution;
+        private final int timeLimit; // Czas wykonania w sekundach
+
+        public Instance(String file, int optimalSolution, int timeLimit) {
+            this.file = file;
+            this.optimalSolution = optimalSolution;
+            this.timeLimit = timeLimit;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public int getOptimalSolution() {
+            return optimalSolution;
+        }
+
+        public boolean hasOptimalSolution() {
+            return optimalSolution != UNKNOWN_OPTIMUM;
+        }
+
+        public int getTimeLimit() {
+            return timeLimit;
+        }
+    }
+
+    public static class Parameters {
+        private final double coolingRate;
+        private final double initialTemperature;
+        private final String coolingMethod;
+        private final String initialSolutionMethod;
+
+        public Parameters(double coolingRate, double initialTemperature, String coolingMethod, String initialSolutionMethod) {
+            this.coolingRate = coolingRate;
+            this.initialTemperature = initialTemperature;
+            this.coolingMethod = coolingMethod;
+            this.initialSolutionMethod = initialSolutionMethod;
+        }
+
+        public double getCoolingRate() {
+            return coolingRate;
+        }
+
+        public double getInitialTemperature() {
+            return initialTemperature;
+        }
+
+        public String getCoolingMethod() {
+            return coolingMethod;
+        }
+
+        public String getInitialSolutionMethod() {
+            return initialSolutionMethod;
+        }
+
+        // Opis bez przecinków, aby nie rozbijał kolumn pliku CSV
+        @Override
+        public String toString() {
+            return coolingMethod + "; " + initialSolutionMethod + "; T0=" + initialTemperature + "; a=" + coolingRate;
+        }
+    }
+
+    public static class Task {
+        private final Instance instance;
+        private final Parameters parameters;
+        private final int run;
+        private final long seed;
+
+        public Task(Instance instance, Parameters parameters, int run, long seed) {
+            this.instance = instance;
+            this.parameters = parameters;
+            this.run = run;
+            this.seed = seed;
+        }
+
+        public Instance getInstance() {
+            return instance;
+        }
+
+        public Parameters getParameters() {
+            return parameters;
+        }
+
+        public int getRun() {
+            return run;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package km.experiment;
+
+import km.algorithms.Algorithm;
+import km.model.TSPProblem;
+import km.model.TourEvaluator;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Równoległe wykonanie planu eksperymentu. Każda instancja wczytywana jest raz i współdzielona przez
+// wszystkie uruchomienia (TSPProblem jest tylko do odczytu). Liczba jednocześnie działających uruchomień
+// jest dobrana tak, aby łączna liczba wątków solverów nie przekraczała liczby rdzeni - uruchomienia
+// ograniczone czasem nie odbierają sobie wtedy nawzajem procesora.
+public class ExperimentScheduler {
+    // Tworzy algorytm dla danego zestawu parametrów (limit czasu w sekundach)
+    public interface AlgorithmFactory {
+        Algorithm create(TSPProblem problem, ExperimentPlan.Parameters parameters, long stopTime);
+    }
+
+    private final ExperimentPlan plan;
+    private final AlgorithmFactory algorithmFactory;
+    private final ResultAggregator aggregator;
+    private final int workers;
+
+    public ExperimentScheduler(ExperimentPlan plan, AlgorithmFactory algorithmFactory, ResultAggregator aggregator, int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Number of workers must be positive: " + workers);
+        }
+        this.plan = plan;
+        this.algorithmFactory = algorithmFactory;
+        this.aggregator = aggregator;
+        this.workers = workers;
+    }
+
+    // Liczba jednoczesnych uruchomień, gdy każde z nich używa threadsPerRun wątków
+    public static int defaultWorkers(int threadsPerRun) {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() / Math.max(1, threadsPerRun));
+    }
+
+    public void run(boolean matrixCache) throws IOException {
+        Map<String, TSPProblem> problems = new HashMap<>();
+        for (ExperimentPlan.Instance instance : plan.getInstances()) {
+            if (!problems.containsKey(instance.getFile())) {
+                TSPProblem problem = TSPProblem.loadFromFile(instance.getFile(), matrixCache);
+                problem.getLowerBound(); // Dolna granica liczona raz, przed pomiarem czasu uruchomień
+                problems.put(instance.getFile(), problem);
+            }
+        }
+
+        List<ExperimentPlan.Task> tasks = plan.tasks();
+        System.out.printf("Eksperyment: %d uruchomien, %d jednoczesnie, ziarno %d%n", tasks.size(), workers, plan.getSeed());
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(workers, tasks.size()));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (ExperimentPlan.Task task : tasks) {
+                TSPProblem problem = problems.get(task.getInstance().getFile());
+                futures.add(executor.submit(() -> {
+                    execute(task, problem);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Przerwano eksperyment");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("Uruchomienie eksperymentu zakończone błędem", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void execute(ExperimentPlan.Task task, TSPProblem problem) throws IOException {
+        ExperimentPlan.Instance instance = task.getInstance();
+        long startTimeNano = System.nanoTime();
+        Algorithm algorithm = algorithmFactory.create(problem, task.getParameters(), instance.getTimeLimit());
+        algorithm.setSeed(task.getSeed());
+        algorithm.setTraceListener(aggregator.traceListener(task));
+        List<Integer> solution = algorithm.solve(instance.hasOptimalSolution() ? instance.getOptimalSolution() : 0);
+        long elapsedTimeNano = System.nanoTime() - startTimeNano;
+
+        aggregator.record(task, algorithm, solution, TourEvaluator.evaluate(problem, solution), problem.getLowerBound(), elapsedTimeNano);
+    }
+}
@@ -0,0 +1,113 @@
+package km.experiment;
+
+import km.algorithms.Algorithm;
+import km.algorithms.TraceListener;
+import km.data.CSVWriter;
+import km.data.TraceWriter;
+import km.model.TourHash;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Przyrostowe zbieranie wyników: każde zakończone uruchomienie od razu trafia do pliku wyników,
+// a po ostatnim uruchomieniu danej instancji i zestawu parametrów zapisywane są średnie i najlepsza trasa.
+// Wywoływane z wielu wątków harmonogramu, dlatego record() jest synchronizowane.
+public class ResultAggregator {
+    private final CSVWriter csvWriter;
+    private final TraceWriter traceWriter; // null - bez zapisu przebiegu
+    private final int runs;
+    private final boolean labelParameters; // Dopisywanie parametrów do nazwy pliku, gdy siatka ma kilka punktów
+    private final Map<String, Summary> summaries = new HashMap<>();
+
+    public ResultAggregator(ExperimentPlan plan, CSVWriter csvWriter, TraceWriter traceWriter) {
+        this.csvWriter = csvWriter;
+        this.traceWriter = traceWriter;
+        this.runs = plan.getRuns();
+        this.labelParameters = plan.getParameterSets().size() > 1;
+    }
+
+    // Odbiorca przebiegu zbieżności uruchomienia, przekazywany algorytmowi przed solve() (null - bez przebiegu)
+    public TraceListener traceListener(ExperimentPlan.Task task) {
+        return traceWriter != null ? traceWriter.listener(label(task), task.getRun()) : null;
+    }
+
+    // Błąd względny liczony jest tylko przy znanym optimum, luka - względem dolnej granicy z problemu przydziału
+    public synchronized void record(ExperimentPlan.Task task, Algorithm algorithm, List<Integer> solution, int bestDistance, int lowerBound, long elapsedTimeNano) throws IOException {
+        ExperimentPlan.Instance instance = task.getInstance();
+        String label = label(task);
+        long elapsedTimeMs = elapsedTimeNano / 1_000_000;
+        double relativeError = instance.hasOptimalSolution() ? calculateRelativeError(bestDistance, instance.getOptimalSolution()) : Double.NaN;
+        double lowerBoundGap = calculateLowerBoundGap(bestDistance, lowerBound);
+
+        System.out.printf("%s, uruchomienie %d (ziarno %d): Najlepsza odleglosc = %d, Blad wzgledny = %.2f%%, Luka do dolnej granicy = %.2f%%, Czas wykonania = %d ns (%d ms), Iteracje/s = %.0f, Najlepsza sciezka = %s%n",
+                label, task.getRun(), task.getSeed(), bestDistance, relativeError, lowerBoundGap, elapsedTimeNano, elapsedTimeMs, algorithm.getIterationsPerSecond(), solution);
+
+        csvWriter.writeRecord(label, task.getRun(), bestDistance, relativeError, elapsedTimeNano, elapsedTimeMs, "-", lowerBoundGap);
+        if (traceWriter != null) {
+            traceWriter.writeSummary(label, task.getRun(), algorithm.getMetrics());
+        }
+
+        Summary summary = summaries.computeIfAbsent(label, key -> new Summary());
+        summary.add(relativeError, lowerBoundGap, elapsedTimeNano, elapsedTimeMs, bestDistance, solution);
+        if (summary.count == runs) {
+            double averageRelativeError = summary.totalRelativeError / runs;
+            double averageLowerBoundGap = summary.totalLowerBoundGap / runs;
+            double averageExecutionTimeNs = (double) summary.totalExecutionTimeNs / runs;
+            double averageExecutionTimeMs = (double) summary.totalExecutionTimeMs / runs;
+
+            csvWriter.writeAverageRecord(label, averageRelativeError, averageExecutionTimeNs, averageExecutionTimeMs, averageLowerBoundGap);
+            csvWriter.writeRecord(label, -1, summary.bestDistance, -1, -1, -1, summary.bestPath.toString(), calculateLowerBoundGap(summary.bestDistance, lowerBound));
+            summaries.remove(label);
+
+            System.out.printf("Plik %s: Sredni blad wzgledny = %.2f%%, Srednia luka do dolnej granicy = %.2f%%, Sredni czas wykonania = %.2f ns (%.2f ms), Rozne trasy = %d z %d%n",
+                    label, averageRelativeError, averageLowerBoundGap, averageExecutionTimeNs, averageExecutionTimeMs, summary.tourHashes.size(), runs);
+        }
+    }
+
+    private String label(ExperimentPlan.Task task) {
+        String file = task.getInstance().getFile();
+        return labelParameters ? file + " [" + task.getParameters() + "]" : file;
+    }
+
+    private static double calculateRelativeError(int foundDistance, int optimalDistance) {
+        return ((double) (foundDistance - optimalDistance) / optimalDistance) * 100;
+    }
+
+    // Udowodniona luka: o ile procent trasa może być dłuższa od optimum (NaN, gdy granica jest zerowa)
+    private static double calculateLowerBoundGap(int foundDistance, int lowerBound) {
+        if (lowerBound <= 0) {
+            return foundDistance == 0 ? 0.0 : Double.NaN;
+        }
+        return ((double) (foundDistance - lowerBound) / lowerBound) * 100;
+    }
+
+    // Sumy częściowe jednej instancji i zestawu parametrów
+    private static class Summary {
+        private int count;
+        private double totalRelativeError;
+        private double totalLowerBoundGap;
+        private long totalExecutionTimeNs;
+        private long totalExecutionTimeMs;
+        private int bestDistance = Integer.MAX_VALUE;
+        private List<Integer> bestPath;
+        private final Set<Long> tourHashes = new HashSet<>(); // Odciski tras wszystkich uruchomień - powtórzenia tej samej trasy
+
+        private void add(double relativeError, double lowerBoundGap, long executionTimeNs, long executionTimeMs, int distance, List<Integer> path) {
+            count++;
+            totalRelativeError += relativeError;
+            totalLowerBoundGap += lowerBoundGap;
+            totalExecutionTimeNs += executionTimeNs;
+            totalExecutionTimeMs += executionTimeMs;
+            tourHashes.add(TourHash.of(path));
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestPath = new ArrayList<>(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package km.model;
+
+import java.util.Arrays;
+
+// Dolna granica długości trasy z relaksacji do problemu przydziału: każde miasto ma dokładnie jeden
+// następnik i jeden poprzednik, ale rozwiązanie może rozpadać się na podtrasy. Optymalny przydział
+// liczony jest algorytmem węgierskim (wersja z potencjałami, O(n^3)); pętle i -> i są zabronione.
+public class AssignmentBound {
+    private AssignmentBound() {
+    }
+
+    public static int compute(TSPProblem problem) {
+        int n = problem.getCitiesCount();
+        if (n < 2) {
+            return 0;
+        }
+        long forbidden = 0; // Koszt przekątnej większy od każdego dopuszczalnego przydziału
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i != j) {
+                    forbidden = Math.max(forbidden, problem.getDistance(i, j));
+                }
+            }
+        }
+        forbidden = (forbidden + 1) * n;
+
+        // Indeksy od 1; kolumna 0 to sztuczny wierzchołek startowy ścieżki powiększającej
+        long[] rowPotential = new long[n + 1];
+        long[] columnPotential = new long[n + 1];
+        long[] minSlack = new long[n + 1];
+        int[] rowOfColumn = new int[n + 1];
+        int[] way = new int[n + 1];
+        boolean[] used = new boolean[n + 1];
+
+        for (int row = 1; row <= n; row++) {
+            rowOfColumn[0] = row;
+            int column = 0;
+            Arrays.fill(minSlack, Long.MAX_VALUE);
+            Arrays.fill(used, false);
+            do {
+                used[column] = true;
+                int currentRow = rowOfColumn[column];
+                long delta = Long.MAX_VALUE;
+                int nextColumn = 0;
+                for (int j = 1; j <= n; j++) {
+                    if (!used[j]) {
+                        long cost = currentRow == j ? forbidden : problem.getDistance(currentRow - 1, j - 1);
+                        long slack = cost - rowPotential[currentRow] - columnPotential[j];
+                        if (slack < minSlack[j]) {
+                            minSlack[j] = slack;
+                            way[j] = column;
+                        }
+                        if (minSlack[j] < delta) {
+                            delta = minSlack[j];
+                            nextColumn = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= n; j++) {
+                    if (used[j]) {
+                        rowPotential[rowOfColumn[j]] += delta;
+                        columnPotential[j] -= delta;
+                    } else {
+                        minSlack[j] -= delta;
+                    }
+                }
+                column = nextColumn;
+            } while (rowOfColumn[column] != 0);
+
+            // Odwrócenie ścieżki powiększającej
+            do {
+                int previous = way[column];
+                rowOfColumn[column] = rowOfColumn[previous];
+                column = previous;
+            } while (column != 0);
+        }
+
+        long total = 0;
+        for (int j = 1; j <= n; j++) {
+            int row = rowOfColumn[j];
+            total += row == j ? forbidden : problem.getDistance(row - 1, j - 1);
+        }
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,72 @@
+package km.model;
+
+import java.util.stream.IntStream;
+
+// Listy kandydatów: dla każdego miasta K najbliższych następników (najkrótsze łuki wychodzące)
+// i K najbliższych poprzedników (najkrótsze łuki wchodzące), posortowane rosnąco według odległości.
+public class CandidateLists {
+    private final int size;
+    private final int[] successors; // successors[city * size + rank]
+    private final int[] predecessors; // predecessors[city * size + rank]
+
+    private CandidateLists(int size, int[] successors, int[] predecessors) {
+        this.size = size;
+        this.successors = successors;
+        this.predecessors = predecessors;
+    }
+
+    // Budowa list równolegle - każde miasto przetwarzane jest niezależnie
+    public static CandidateLists build(TSPProblem problem, int size) {
+        int n = problem.getCitiesCount();
+        int k = Math.min(size, n - 1);
+        if (k < 1) {
+            throw new IllegalArgumentException("Candidate list size must be positive: " + size);
+        }
+        int[] successors = new int[n * k];
+        int[] predecessors = new int[n * k];
+
+        IntStream.range(0, n).parallel().forEach(city -> {
+            int[] distances = new int[k];
+            nearest(problem, city, k, true, successors, distances);
+            nearest(problem, city, k, false, predecessors, distances);
+        });
+        return new CandidateLists(k, successors, predecessors);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // rank-ty najbliższy następnik miasta (miasto x z najkrótszym łukiem city -> x)
+    public int successor(int city, int rank) {
+        return successors[city * size + rank];
+    }
+
+    // rank-ty najbliższy poprzednik miasta (miasto x z najkrótszym łukiem x -> city)
+    public int predecessor(int city, int rank) {
+        return predecessors[city * size + rank];
+    }
+
+    // Wybór k najbliższych miast przez wstawianie do posortowanej tablicy - O(n * k) dla jednego miasta
+    private static void nearest(TSPProblem problem, int city, int k, boolean outgoing, int[] result, int[] distances) {
+        int offset = city * k;
+        int found = 0;
+        for (int other = 0; other < problem.getCitiesCount(); other++) {
+            if (other == city) {
+                continue;
+            }
+            int distance = outgoing ? problem.getDistance(city, other) : problem.getDistance(other, city);
+            if (found == k && distance >= distances[k - 1]) {
+                continue;
+            }
+            int i = found < k ? found++ : k - 1;
+            while (i > 0 && distances[i - 1] > distance) {
+                distances[i] = distances[i - 1];
+                result[offset + i] = result[offset + i - 1];
+                i--;
+            }
+            distances[i] = distance;
+            result[offset + i] = other;
+        }
+    }
+}
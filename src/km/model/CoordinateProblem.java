@@ -0,0 +1,125 @@
+package km.model;
+
+// Instancja TSPLIB zadana współrzędnymi (NODE_COORD_SECTION). Odległości liczone są na żądanie zamiast
+// przechowywania macierzy n x n - 20 000 miast zajmuje kilkaset kB zamiast 1,6 GB. Wszystko, co zależy
+// tylko od pary miast, jest wyliczane z góry: dla GEO sinusy i cosinusy szerokości i długości geograficznej,
+// dzięki czemu pojedyncza odległość wymaga jednego acos zamiast trzech cos i acos.
+public class CoordinateProblem extends TSPProblem {
+    public static final String EUC_2D = "EUC_2D";
+    public static final String CEIL_2D = "CEIL_2D";
+    public static final String ATT = "ATT";
+    public static final String GEO = "GEO";
+
+    private static final int METRIC_EUC_2D = 0;
+    private static final int METRIC_CEIL_2D = 1;
+    private static final int METRIC_ATT = 2;
+    private static final int METRIC_GEO = 3;
+    private static final double GEO_PI = 3.141592; // Wartości z definicji formatu TSPLIB
+    private static final double EARTH_RADIUS = 6378.388;
+
+    private final String edgeWeightType;
+    private final int metric;
+    private final double[] x;
+    private final double[] y;
+    // GEO: szerokość i długość geograficzna w radianach jako sin/cos
+    private final double[] sinLatitude;
+    private final double[] cosLatitude;
+    private final double[] sinLongitude;
+    private final double[] cosLongitude;
+
+    public CoordinateProblem(String edgeWeightType, double[] x, double[] y) {
+        super(x.length);
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("Coordinate arrays differ in length: " + x.length + " and " + y.length);
+        }
+        this.edgeWeightType = edgeWeightType;
+        this.metric = parseMetric(edgeWeightType);
+        this.x = x.clone();
+        this.y = y.clone();
+
+        if (metric == METRIC_GEO) {
+            int n = x.length;
+            sinLatitude = new double[n];
+            cosLatitude = new double[n];
+            sinLongitude = new double[n];
+            cosLongitude = new double[n];
+            for (int i = 0; i < n; i++) {
+                double latitude = geoRadians(x[i]);
+                double longitude = geoRadians(y[i]);
+                sinLatitude[i] = Math.sin(latitude);
+                cosLatitude[i] = Math.cos(latitude);
+                sinLongitude[i] = Math.sin(longitude);
+                cosLongitude[i] = Math.cos(longitude);
+            }
+        } else {
+            sinLatitude = null;
+            cosLatitude = null;
+            sinLongitude = null;
+            cosLongitude = null;
+        }
+    }
+
+    public String getEdgeWeightType() {
+        return edgeWeightType;
+    }
+
+    @Override
+    public int getDistance(int from, int to) {
+        if (from == to) {
+            return 0;
+        }
+        switch (metric) {
+            case METRIC_EUC_2D: {
+                double dx = x[from] - x[to];
+                double dy = y[from] - y[to];
+                return (int) (Math.sqrt(dx * dx + dy * dy) + 0.5);
+            }
+            case METRIC_CEIL_2D: {
+                double dx = x[from] - x[to];
+                double dy = y[from] - y[to];
+                return (int) Math.ceil(Math.sqrt(dx * dx + dy * dy));
+            }
+            case METRIC_ATT: {
+                double dx = x[from] - x[to];
+                double dy = y[from] - y[to];
+                double r = Math.sqrt((dx * dx + dy * dy) / 10.0);
+                int t = (int) (r + 0.5);
+                return t < r ? t + 1 : t;
+            }
+            default:
+                return geoDistance(from, to);
+        }
+    }
+
+    // Wzór TSPLIB: q1 = cos(dLon), q2 = cos(lat1 - lat2), q3 = cos(lat1 + lat2), rozpisane na iloczyny sin/cos
+    private int geoDistance(int from, int to) {
+        double cosLatCos = cosLatitude[from] * cosLatitude[to];
+        double sinLatSin = sinLatitude[from] * sinLatitude[to];
+        double q1 = cosLongitude[from] * cosLongitude[to] + sinLongitude[from] * sinLongitude[to];
+        double q2 = cosLatCos + sinLatSin;
+        double q3 = cosLatCos - sinLatSin;
+        double argument = 0.5 * ((1.0 + q1) * q2 - (1.0 - q1) * q3);
+        return (int) (EARTH_RADIUS * Math.acos(Math.max(-1.0, Math.min(1.0, argument))) + 1.0);
+    }
+
+    // Stopnie i minuty zapisane jako DDD.MM
+    private static double geoRadians(double value) {
+        int degrees = (int) value;
+        double minutes = value - degrees;
+        return GEO_PI * (degrees + 5.0 * minutes / 3.0) / 180.0;
+    }
+
+    private static int parseMetric(String edgeWeightType) {
+        if (EUC_2D.equals(edgeWeightType)) {
+            return METRIC_EUC_2D;
+        } else if (CEIL_2D.equals(edgeWeightType)) {
+            return METRIC_CEIL_2D;
+        } else if (ATT.equals(edgeWeightType)) {
+            return METRIC_ATT;
+        } else if (GEO.equals(edgeWeightType)) {
+            return METRIC_GEO;
+        } else {
+            throw new IllegalArgumentException("Unknown edge weight type: " + edgeWeightType);
+        }
+    }
+}
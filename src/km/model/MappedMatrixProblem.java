@@ -0,0 +1,47 @@
+package km.model;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Macierz odległości mapowana z pliku binarnego (int little-endian, wierszami) poza stertą.
+// Strony pliku wczytuje system operacyjny przy pierwszym dostępie, więc duże macierze nie zajmują sterty
+// i nie są kopiowane przy starcie. Pojedyncze mapowanie nie może przekroczyć 2 GB, dlatego plik
+// mapowany jest w blokach po całych wierszach. Odczyty bezwzględne są bezpieczne dla wielu wątków.
+public class MappedMatrixProblem extends TSPProblem {
+    private static final long MAX_CHUNK_BYTES = Integer.MAX_VALUE & ~7L;
+
+    private final int rowLength;
+    private final int rowsPerChunk;
+    private final IntBuffer[] chunks;
+
+    // offset - położenie pierwszej wartości macierzy w pliku (za nagłówkiem)
+    public MappedMatrixProblem(Path file, long offset, int citiesCount) throws IOException {
+        super(citiesCount);
+        this.rowLength = citiesCount;
+        long rowBytes = (long) citiesCount * 4;
+        this.rowsPerChunk = (int) Math.min(citiesCount, MAX_CHUNK_BYTES / rowBytes);
+        this.chunks = new IntBuffer[(citiesCount + rowsPerChunk - 1) / rowsPerChunk];
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < offset + rowBytes * citiesCount) {
+                throw new IOException("Plik macierzy " + file + " jest krótszy niż " + citiesCount + "x" + citiesCount);
+            }
+            // Mapowanie pozostaje ważne po zamknięciu kanału
+            for (int c = 0; c < chunks.length; c++) {
+                int rows = Math.min(rowsPerChunk, citiesCount - c * rowsPerChunk);
+                chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, offset + c * rowsPerChunk * rowBytes, rows * rowBytes)
+                        .order(ByteOrder.LITTLE_ENDIAN)
+                        .asIntBuffer();
+            }
+        }
+    }
+
+    @Override
+    public int getDistance(int from, int to) {
+        return chunks[from / rowsPerChunk].get((from % rowsPerChunk) * rowLength + to);
+    }
+}
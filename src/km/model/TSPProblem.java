@@ -1,87 +1,166 @@
 package km.model;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import km.data.ATSPParser;
+import km.data.MatrixCache;
+
 import java.io.IOException;
 
 public class TSPProblem {
-    private int[][] distanceMatrix;
+    private static final int COMPACT_MAX = 0xFFFF; // Największa waga mieszcząca się w short (bez znaku)
+    private static final int LOWER_BOUND_MAX_CITIES = 2000; // Granica O(n^3) dla większych instancji liczyłaby się minutami
+
+    private final int citiesCount;
+    private final int[] distances; // Macierz odległości w jednej tablicy, wierszami (null w wersji kompaktowej)
+    private final short[] compactDistances; // Wersja 16-bitowa, gdy wszystkie wagi poza przekątną mieszczą się w zakresie
+    private final int[] diagonal; // Przekątna wersji kompaktowej (w plikach ATSP zwykle bardzo duże wartości)
+    private volatile int[][] distanceMatrix; // Widok dwuwymiarowy tworzony dopiero na żądanie
+    private volatile CandidateLists candidateLists; // Listy kandydatów liczone raz dla instancji
+    private volatile int lowerBound = -1; // Granica z problemu przydziału (-1 - jeszcze nie policzona)
 
     public TSPProblem(int[][] distanceMatrix) {
-        this.distanceMatrix = distanceMatrix;
+        this(flatten(distanceMatrix), distanceMatrix.length);
     }
 
-    public static TSPProblem loadFromFile(String filePath) throws IOException {
-        BufferedReader reader = new BufferedReader(new FileReader(filePath));
-        String line;
-        int dimension = 0; // Zmienna przechowująca liczbę miast (wymiar macierzy)
-        boolean matrixSection = false; // Flaga wskazująca rozpoczęcie sekcji macierzy odległości
-        int[][] matrix = null; // Macierz odległości
-        int row = 0, col = 0; // Wskaźniki aktualnego wiersza i kolumny macierzy
-
-        while ((line = reader.readLine()) != null) {
-            line = line.trim(); // Usunięcie białych znaków na początku i końcu linii
-
-            // Odczytanie wymiaru macierzy z nagłówka DIMENSION
-            if (line.startsWith("DIMENSION:")) {
-                dimension = Integer.parseInt(line.split(":")[1].trim()); // Parsowanie liczby miast
-                matrix = new int[dimension][dimension]; // Inicjalizacja macierzy odległości
-            }
+    // distances - macierz odległości zapisana wierszami: distances[from * citiesCount + to]
+    public TSPProblem(int[] distances, int citiesCount) {
+        if (distances.length != citiesCount * citiesCount) {
+            throw new IllegalArgumentException("Distance array length " + distances.length + " does not match " + citiesCount + "x" + citiesCount);
+        }
+        this.citiesCount = citiesCount;
 
-            // Znalezienie sekcji EDGE_WEIGHT_SECTION, która zawiera dane macierzy
-            if (line.equals("EDGE_WEIGHT_SECTION")) {
-                matrixSection = true; // Ustawienie flagi na true, aby zacząć przetwarzanie macierzy
-                continue;
+        if (fitsCompact(distances, citiesCount)) {
+            this.compactDistances = new short[distances.length];
+            this.diagonal = new int[citiesCount];
+            for (int i = 0; i < distances.length; i++) {
+                compactDistances[i] = (short) distances[i];
+            }
+            for (int i = 0; i < citiesCount; i++) {
+                diagonal[i] = distances[i * citiesCount + i];
             }
+            this.distances = null;
+        } else {
+            this.distances = distances;
+            this.compactDistances = null;
+            this.diagonal = null;
+        }
+    }
 
-            // Przetwarzanie sekcji macierzy odległości
-            if (matrixSection) {
-                if (line.equals("EOF")) { // Koniec pliku
-                    break;
-                }
+    // Dla podklas, które wyznaczają odległości inaczej (ze współrzędnych, z macierzy mapowanej z pliku) -
+    // nie przechowują macierzy na stercie i muszą nadpisać getDistance
+    protected TSPProblem(int citiesCount) {
+        this.citiesCount = citiesCount;
+        this.distances = null;
+        this.compactDistances = null;
+        this.diagonal = null;
+    }
 
-                String[] tokens = line.split("\\s+"); // Podział linii na liczby oddzielone spacjami
+    public static TSPProblem loadFromFile(String filePath) throws IOException {
+        return loadFromFile(filePath, false);
+    }
 
-                // Iteracja po liczbach w bieżącej linii
-                for (String token : tokens) {
-                    if (col == dimension) { // Jeśli kolumna osiągnie wymiar, przejdź do nowego wiersza
-                        col = 0;
-                        row++;
-                    }
+    // useCache - korzystanie z binarnej kopii macierzy zapisanej obok pliku (<plik>.bin)
+    public static TSPProblem loadFromFile(String filePath, boolean useCache) throws IOException {
+        if (useCache) {
+            return MatrixCache.load(filePath);
+        }
+        return ATSPParser.parse(filePath);
+    }
 
-                    if (row >= dimension) { // Sprawdzenie, czy liczba wierszy nie przekracza wymiaru
-                        throw new IOException("Za dużo wierszów w EDGE_WEIGHT_SECTION, oczekiwano:  " + dimension);
-                    }
+    public int getCitiesCount() {
+        return citiesCount; // Zwraca liczbę miast (wymiar macierzy)
+    }
 
-                    matrix[row][col++] = Integer.parseInt(token); // Przypisanie wartości do macierzy i przesunięcie kolumny
+    // Pełna macierz n x n - dla dużych instancji z podklas zajmuje tyle pamięci, ile one oszczędzają
+    public int[][] getDistanceMatrix() {
+        int[][] matrix = distanceMatrix;
+        if (matrix == null) {
+            synchronized (this) {
+                matrix = distanceMatrix;
+                if (matrix == null) {
+                    matrix = new int[citiesCount][citiesCount];
+                    for (int i = 0; i < citiesCount; i++) {
+                        for (int j = 0; j < citiesCount; j++) {
+                            matrix[i][j] = getDistance(i, j);
+                        }
+                    }
+                    distanceMatrix = matrix;
                 }
             }
         }
+        return matrix; // Zwraca macierz odległości
+    }
 
-        reader.close(); // Zamknięcie pliku po zakończeniu przetwarzania
+    public int getDistance(int from, int to) {
+        if (compactDistances != null) {
+            return from == to ? diagonal[from] : compactDistances[from * citiesCount + to] & COMPACT_MAX;
+        }
+        return distances[from * citiesCount + to]; // Zwraca odległość między dwoma miastami
+    }
 
-        // Sprawdzenie, czy macierz została poprawnie wczytana
-        if (matrix == null) {
-            throw new IOException("Nieprawidłowy format pliku");
+    // Listy K najbliższych następników i poprzedników - budowane przy pierwszym użyciu i współdzielone przez wszystkie uruchomienia
+    public CandidateLists getCandidateLists(int size) {
+        CandidateLists lists = candidateLists;
+        if (lists == null || lists.size() != Math.min(size, citiesCount - 1)) {
+            synchronized (this) {
+                lists = candidateLists;
+                if (lists == null || lists.size() != Math.min(size, citiesCount - 1)) {
+                    lists = CandidateLists.build(this, size);
+                    candidateLists = lists;
+                }
+            }
         }
+        return lists;
+    }
 
-        // Sprawdzenie, czy macierz ma dokładnie wymiar dimension x dimension
-        if (row != dimension - 1 || col != dimension) {
-            throw new IOException("Niekompletna macierz, oczekiwano: " + dimension + "x" + dimension + ", ale jest wiersz=" + row + " i kolumna=" + col);
+    // Dolna granica długości trasy (relaksacja przydziału, O(n^3)) - liczona raz i współdzielona przez wszystkie uruchomienia.
+    // Powyżej LOWER_BOUND_MAX_CITIES miast granica nie jest liczona (0 - brak granicy).
+    public int getLowerBound() {
+        int bound = lowerBound;
+        if (bound < 0) {
+            synchronized (this) {
+                bound = lowerBound;
+                if (bound < 0) {
+                    bound = citiesCount > LOWER_BOUND_MAX_CITIES ? 0 : AssignmentBound.compute(this);
+                    lowerBound = bound;
+                }
+            }
         }
+        return bound;
+    }
 
-        return new TSPProblem(matrix); // Zwrócenie obiektu TSPProblem z wczytaną macierzą odległości
+    // Tablice macierzy dla TourEvaluator (null, gdy dana wersja nie jest używana)
+    int[] rawDistances() {
+        return distances;
     }
 
-    public int getCitiesCount() {
-        return distanceMatrix.length; // Zwraca liczbę miast (wymiar macierzy)
+    short[] rawCompactDistances() {
+        return compactDistances;
     }
 
-    public int[][] getDistanceMatrix() {
-        return distanceMatrix; // Zwraca macierz odległości
+    // Czy macierz przechowywana jest w wersji 16-bitowej
+    public boolean isCompact() {
+        return compactDistances != null;
     }
 
-    public int getDistance(int from, int to) {
-        return distanceMatrix[from][to]; // Zwraca odległość między dwoma miastami
+    private static int[] flatten(int[][] matrix) {
+        int n = matrix.length;
+        int[] flat = new int[n * n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(matrix[i], 0, flat, i * n, n);
+        }
+        return flat;
+    }
+
+    // Wersja 16-bitowa możliwa, gdy wszystkie wagi poza przekątną należą do [0, COMPACT_MAX]
+    private static boolean fitsCompact(int[] distances, int citiesCount) {
+        for (int i = 0; i < citiesCount; i++) {
+            for (int j = 0; j < citiesCount; j++) {
+                int value = distances[i * citiesCount + j];
+                if (i != j && (value < 0 || value > COMPACT_MAX)) {
+                    return false;
+                }
+            }
+        }
+        return true;
     }
 }
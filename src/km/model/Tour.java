@@ -0,0 +1,145 @@
+package km.model;
+
+public class Tour {
+    private final int[] cities; // Kolejność odwiedzania miast
+    private final int[] positions; // Pozycja każdego miasta w trasie (odwrotność tablicy cities)
+    private final int[] buffer; // Bufor pomocniczy dla przesunięć segmentów
+    private long hash; // Odcisk zbioru łuków (TourHash) aktualizowany przy każdym ruchu
+
+    public Tour(int[] cities) {
+        this.cities = cities.clone();
+        this.positions = new int[cities.length];
+        this.buffer = new int[cities.length];
+        for (int i = 0; i < cities.length; i++) {
+            positions[cities[i]] = i;
+        }
+        this.hash = TourHash.of(cities);
+    }
+
+    public int size() {
+        return cities.length;
+    }
+
+    public int cityAt(int position) {
+        return cities[position];
+    }
+
+    public int positionOf(int city) {
+        return positions[city];
+    }
+
+    // Miasto poprzedzające pozycję (z zawinięciem trasy)
+    public int cityBefore(int position) {
+        return cities[position == 0 ? cities.length - 1 : position - 1];
+    }
+
+    // Miasto następujące po pozycji (z zawinięciem trasy)
+    public int cityAfter(int position) {
+        return cities[position == cities.length - 1 ? 0 : position + 1];
+    }
+
+    // Zwraca tablicę miast bez kopiowania - tylko do odczytu
+    public int[] getCities() {
+        return cities;
+    }
+
+    public void copyTo(int[] destination) {
+        System.arraycopy(cities, 0, destination, 0, cities.length);
+    }
+
+    public void setCities(int[] source) {
+        System.arraycopy(source, 0, cities, 0, cities.length);
+        for (int i = 0; i < cities.length; i++) {
+            positions[cities[i]] = i;
+        }
+        hash = TourHash.of(cities);
+    }
+
+    public long hash() {
+        return hash;
+    }
+
+    // Odcisk trasy po zamianie miast na pozycjach i oraz j - bez wykonywania ruchu
+    public long hashAfterSwap(int i, int j) {
+        if (i == j) {
+            return hash;
+        }
+        int a = cities[i];
+        int b = cities[j];
+        return hash ^ arcsAround(i, j, a, b) ^ arcsAround(i, j, b, a);
+    }
+
+    // Odcisk trasy po moveSegment(from, to, after): p -> [s..e] -> q, c -> d  zmienia się na  p -> q, c -> [s..e] -> d
+    public long hashAfterMoveSegment(int from, int to, int after) {
+        int p = cityBefore(from);
+        int s = cities[from];
+        int e = cities[to];
+        int q = cityAfter(to);
+        int c = cities[after];
+        int d = cityAfter(after);
+        return hash ^ TourHash.arc(p, s) ^ TourHash.arc(e, q) ^ TourHash.arc(c, d)
+                ^ TourHash.arc(p, q) ^ TourHash.arc(c, s) ^ TourHash.arc(e, d);
+    }
+
+    public int length(TSPProblem problem) {
+        return TourEvaluator.evaluate(problem, cities);
+    }
+
+    public void swap(int i, int j) {
+        hash = hashAfterSwap(i, j);
+        int a = cities[i];
+        int b = cities[j];
+        cities[i] = b;
+        cities[j] = a;
+        positions[b] = i;
+        positions[a] = j;
+    }
+
+    // Przeniesienie segmentu [from..to] (bez odwracania) za miasto na pozycji after.
+    // Pozycja after musi leżeć poza segmentem i nie może być pozycją bezpośrednio przed nim.
+    public void moveSegment(int from, int to, int after) {
+        hash = hashAfterMoveSegment(from, to, after);
+        int length = to - from + 1;
+        if (after > to) {
+            // [from..to][to+1..after]  ->  [to+1..after][from..to]
+            System.arraycopy(cities, from, buffer, 0, length);
+            System.arraycopy(cities, to + 1, cities, from, after - to);
+            System.arraycopy(buffer, 0, cities, after - length + 1, length);
+            updatePositions(from, after);
+        } else {
+            // [after+1..from-1][from..to]  ->  [from..to][after+1..from-1]
+            System.arraycopy(cities, from, buffer, 0, length);
+            System.arraycopy(cities, after + 1, cities, after + 1 + length, from - after - 1);
+            System.arraycopy(buffer, 0, cities, after + 1, length);
+            updatePositions(after + 1, to);
+        }
+    }
+
+    private void updatePositions(int from, int to) {
+        for (int i = from; i <= to; i++) {
+            positions[cities[i]] = i;
+        }
+    }
+
+    // Łuki wchodzące do pozycji i oraz j i z nich wychodzące, gdy na pozycji i stoi miasto ci, a na j - cj.
+    // Łuk łączący sąsiednie pozycje i oraz j liczony jest raz.
+    private long arcsAround(int i, int j, int ci, int cj) {
+        int n = cities.length;
+        int beforeI = i == 0 ? n - 1 : i - 1;
+        int afterI = i == n - 1 ? 0 : i + 1;
+        int beforeJ = j == 0 ? n - 1 : j - 1;
+        int afterJ = j == n - 1 ? 0 : j + 1;
+        long arcs = TourHash.arc(cityAt(beforeI, i, j, ci, cj), ci) ^ TourHash.arc(ci, cityAt(afterI, i, j, ci, cj));
+        if (beforeJ != i) {
+            arcs ^= TourHash.arc(cityAt(beforeJ, i, j, ci, cj), cj);
+        }
+        if (afterJ != i) {
+            arcs ^= TourHash.arc(cj, cityAt(afterJ, i, j, ci, cj));
+        }
+        return arcs;
+    }
+
+    private int cityAt(int position, int i, int j, int ci, int cj) {
+        return position == i ? ci : position == j ? cj : cities[position];
+    }
+}
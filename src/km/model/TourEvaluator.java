@@ -0,0 +1,106 @@
+package km.model;
+
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Długość tras zapisanych jako int[], IntBuffer lub List<Integer> oraz ocena wielu tras naraz.
+// Dla macierzy przechowywanej na stercie pełna trasa sumowana jest wprost z tablicy, bez wywołań getDistance
+// i sprawdzania przekątnej; pozostałe reprezentacje (współrzędne, plik mapowany) korzystają z getDistance.
+public class TourEvaluator {
+    private TourEvaluator() {
+    }
+
+    public static int evaluate(TSPProblem problem, int[] tour) {
+        int n = tour.length;
+        if (n > 1 && n == problem.getCitiesCount() && problem.getClass() == TSPProblem.class) {
+            // Pełna trasa jest permutacją - kolejne miasta są różne, więc przekątna nie jest potrzebna
+            short[] compact = problem.rawCompactDistances();
+            if (compact != null) {
+                return evaluateCompact(compact, tour);
+            }
+            return evaluateFlat(problem.rawDistances(), tour);
+        }
+        int distance = 0;
+        for (int i = 0; i < n - 1; i++) {
+            distance += problem.getDistance(tour[i], tour[i + 1]);
+        }
+        return distance + problem.getDistance(tour[n - 1], tour[0]); // Powrót do miasta startowego
+    }
+
+    private static int evaluateCompact(short[] distances, int[] tour) {
+        int n = tour.length;
+        int distance = 0;
+        int from = tour[0];
+        for (int i = 1; i < n; i++) {
+            int to = tour[i];
+            distance += distances[from * n + to] & 0xFFFF;
+            from = to;
+        }
+        return distance + (distances[from * n + tour[0]] & 0xFFFF);
+    }
+
+    private static int evaluateFlat(int[] distances, int[] tour) {
+        int n = tour.length;
+        int distance = 0;
+        int from = tour[0];
+        for (int i = 1; i < n; i++) {
+            int to = tour[i];
+            distance += distances[from * n + to];
+            from = to;
+        }
+        return distance + distances[from * n + tour[0]];
+    }
+
+    // Trasa od bieżącej pozycji do limitu bufora (np. mapowana z pliku) - pozycja bufora nie jest zmieniana
+    public static int evaluate(TSPProblem problem, IntBuffer tour) {
+        int start = tour.position();
+        int end = tour.limit();
+        int distance = 0;
+        for (int i = start; i < end - 1; i++) {
+            distance += problem.getDistance(tour.get(i), tour.get(i + 1));
+        }
+        return distance + problem.getDistance(tour.get(end - 1), tour.get(start));
+    }
+
+    // Wynik algorytmu (Algorithm.solve) - rozpakowywany raz, żeby nie odczytywać listy po dwa razy na krawędź
+    public static int evaluate(TSPProblem problem, List<Integer> tour) {
+        int[] cities = new int[tour.size()];
+        for (int i = 0; i < cities.length; i++) {
+            cities[i] = tour.get(i);
+        }
+        return evaluate(problem, cities);
+    }
+
+    // Długości wielu tras dla jednej instancji - trasy oceniane równolegle we wspólnej puli wątków.
+    // Trasy z plików wyników sprawdzane są przed oceną - powtórzone lub spoza zakresu miasto dałoby
+    // w szybkiej ścieżce po cichu błędną długość zamiast błędu.
+    public static int[] evaluateAll(TSPProblem problem, List<int[]> tours) {
+        int[] distances = new int[tours.size()];
+        IntStream.range(0, distances.length).parallel().forEach(t -> distances[t] = evaluate(problem, validate(problem, tours.get(t))));
+        return distances;
+    }
+
+    // Jedna trasa dla wielu instancji (np. ta sama permutacja na kolejnych wariantach macierzy)
+    public static int[] evaluateAll(List<TSPProblem> problems, int[] tour) {
+        int[] distances = new int[problems.size()];
+        IntStream.range(0, distances.length).parallel().forEach(p -> distances[p] = evaluate(problems.get(p), validate(problems.get(p), tour)));
+        return distances;
+    }
+
+    // Trasa musi być permutacją miast instancji
+    private static int[] validate(TSPProblem problem, int[] tour) {
+        int citiesCount = problem.getCitiesCount();
+        if (tour.length != citiesCount) {
+            throw new IllegalArgumentException("Tour has " + tour.length + " cities, instance has " + citiesCount);
+        }
+        boolean[] seen = new boolean[citiesCount];
+        for (int city : tour) {
+            if (city < 0 || city >= citiesCount || seen[city]) {
+                throw new IllegalArgumentException("Tour is not a permutation of the instance cities");
+            }
+            seen[city] = true;
+        }
+        return tour;
+    }
+}
@@ -0,0 +1,38 @@
+package km.model;
+
+import java.util.List;
+
+// Odcisk trasy w stylu Zobrista: XOR 64-bitowych kluczy wszystkich łuków (from -> to).
+// Klucz łuku wyliczany jest funkcją mieszającą z numerów miast zamiast losowej tablicy n x n, a zbiór łuków
+// nie zależy od miasta startowego, więc zapisy tej samej trasy od różnych miast mają ten sam odcisk.
+// Ruch zmieniający k łuków zmienia odcisk w O(k) - Tour aktualizuje go przy każdym ruchu.
+public class TourHash {
+    private TourHash() {
+    }
+
+    // Finalizator SplitMix64 - kolejne pary miast dają niezależnie wyglądające klucze
+    public static long arc(int from, int to) {
+        long z = (((long) from << 32) | (to & 0xFFFFFFFFL)) + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static long of(int[] cities) {
+        int n = cities.length;
+        long hash = arc(cities[n - 1], cities[0]);
+        for (int i = 0; i < n - 1; i++) {
+            hash ^= arc(cities[i], cities[i + 1]);
+        }
+        return hash;
+    }
+
+    public static long of(List<Integer> cities) {
+        int n = cities.size();
+        long hash = arc(cities.get(n - 1), cities.get(0));
+        for (int i = 0; i < n - 1; i++) {
+            hash ^= arc(cities.get(i), cities.get(i + 1));
+        }
+        return hash;
+    }
+}